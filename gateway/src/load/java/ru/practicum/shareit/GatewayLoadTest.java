@@ -0,0 +1,176 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Сравнение пропускной способности, p99 и числа потоков шлюза на платформенных и виртуальных потоках
+ * и с неблокирующим клиентом при медленном сервере ShareIt, а также распределения запросов между несколькими
+ * экземплярами сервера ограниченной емкости. Запуск: mvn -P load -pl gateway test-compile exec:exec
+ */
+public class GatewayLoadTest {
+    private static final int CONCURRENCY = 400;
+    private static final int REQUESTS = 4000;
+    private static final Duration SERVER_DELAY = Duration.ofSeconds(1);
+    private static final int SERVER_CAPACITY = 100;
+    private static final AtomicInteger SERVER_REQUESTS = new AtomicInteger();
+
+    public static void main(String[] args) throws Exception {
+        HttpServer server = startSlowServer(0);
+        List<HttpServer> limited = List.of(startSlowServer(SERVER_CAPACITY), startSlowServer(SERVER_CAPACITY));
+        try {
+            String url = url(server);
+            run(new Mode("platform threads", false, "rest-template", 200, false), url);
+            run(new Mode("virtual threads", true, "rest-template", 200, false), url);
+            run(new Mode("web-client", false, "web-client", 8, false), url);
+            run(new Mode("web-client, same GET", false, "web-client", 8, true), url);
+            run(new Mode("web-client, 1 server of " + SERVER_CAPACITY, false, "web-client", 8, false),
+                    url(limited.get(0)));
+            run(new Mode("web-client, 2 servers of " + SERVER_CAPACITY, false, "web-client", 8, false),
+                    url(limited.get(0)) + "," + url(limited.get(1)));
+        } finally {
+            server.stop(0);
+            limited.forEach(s -> s.stop(0));
+        }
+    }
+
+    private static void run(Mode mode, String serverUrls) throws InterruptedException {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItGateway.class)
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + mode.virtual(),
+                        "--shareit-server.engine=" + mode.engine(),
+                        "--server.tomcat.threads.max=" + mode.tomcatThreads(),
+                        "--shareit-server.url=" + serverUrls.split(",")[0],
+                        "--shareit-server.balancer.urls=" + serverUrls,
+                        "--shareit-server.http.max-total=" + CONCURRENCY * 2,
+                        "--shareit-server.http.max-per-route=" + CONCURRENCY * 2,
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.web.client.RestTemplate=WARN");
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            // разные адреса, чтобы одинаковые GET-запросы не объединялись в один запрос к серверу
+            IntFunction<URI> uri = i -> URI.create("http://localhost:" + port + "/users/"
+                    + (mode.sameRequest() ? 1 : i));
+            fire(uri, CONCURRENCY);
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            threads.resetPeakThreadCount();
+            SERVER_REQUESTS.set(0);
+            Result result = fire(uri, REQUESTS);
+            System.out.printf("%s: %d requests, %d errors, %.0f req/s, p50 %d ms, p99 %d ms, peak threads %d, "
+                            + "server requests %d%n",
+                    mode.name(), REQUESTS, result.errors(), result.throughput(),
+                    result.percentile(0.50), result.percentile(0.99), threads.getPeakThreadCount(),
+                    SERVER_REQUESTS.get());
+        } finally {
+            context.close();
+        }
+    }
+
+    private static Result fire(IntFunction<URI> uri, int requests) throws InterruptedException {
+        long[] latencies = new long[requests];
+        AtomicInteger errors = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        CountDownLatch done = new CountDownLatch(requests);
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(executor)
+                     .build()) {
+            for (int i = 0; i < requests; i++) {
+                int index = i;
+                inFlight.acquire();
+                executor.submit(() -> {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri.apply(index)).build(),
+                                HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (IOException | InterruptedException e) {
+                        errors.incrementAndGet();
+                    } finally {
+                        latencies[index] = System.nanoTime() - start;
+                        inFlight.release();
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+        }
+        long elapsed = System.nanoTime() - started;
+        return new Result(latencies, errors.get(), requests * 1e9 / elapsed);
+    }
+
+    private static String url(HttpServer server) {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    // capacity - сколько запросов сервер обрабатывает одновременно, остальные ждут; 0 - без ограничения
+    private static HttpServer startSlowServer(int capacity) throws IOException {
+        // по умолчанию встроенный сервер держит не больше 200 простаивающих соединений и закрывает остальные
+        System.setProperty("sun.net.httpserver.maxIdleConnections", String.valueOf(CONCURRENCY * 2));
+        HttpServer server = HttpServer.create(new InetSocketAddress(0), CONCURRENCY * 2);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+        Semaphore workers = new Semaphore(capacity > 0 ? capacity : Integer.MAX_VALUE);
+        server.createContext("/actuator/health", exchange -> {
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/", exchange -> {
+            SERVER_REQUESTS.incrementAndGet();
+            try {
+                workers.acquire();
+                try {
+                    Thread.sleep(SERVER_DELAY);
+                } finally {
+                    workers.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private record Mode(String name, boolean virtual, String engine, int tomcatThreads, boolean sameRequest) {
+    }
+
+    private record Result(long[] latencies, int errors, double throughput) {
+        long percentile(double percentile) {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            return Duration.ofNanos(sorted[(int) Math.ceil(percentile * sorted.length) - 1]).toMillis();
+        }
+    }
+}
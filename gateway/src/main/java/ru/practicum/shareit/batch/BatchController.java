@@ -0,0 +1,33 @@
+package ru.practicum.shareit.batch;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.batch.dto.SubResponseDto;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(path = "/batch")
+@Slf4j
+@RequiredArgsConstructor
+public class BatchController {
+    private final BatchDispatcher batchDispatcher;
+
+    // подзапросы выполняются одновременно, ответы возвращаются в порядке запросов
+    @PostMapping
+    public Mono<List<SubResponseDto>> batch(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId,
+                                            @Valid @RequestBody BatchRequestDto batchRequestDto,
+                                            HttpServletRequest request) {
+        log.info("Пакетный запрос из {} подзапросов от пользователя с id {}",
+                batchRequestDto.getRequests().size(), userId);
+        return Flux.fromIterable(batchRequestDto.getRequests())
+                .flatMapSequential(subRequest -> batchDispatcher.dispatch(request, userId, subRequest.getPath()))
+                .collectList();
+    }
+}
@@ -0,0 +1,312 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.databind.util.RawValue;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.validation.ConstraintViolationException;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.validation.BindException;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.HandlerMethodArgumentResolverComposite;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.ServletRequestDataBinderFactory;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import ru.practicum.shareit.batch.dto.SubResponseDto;
+import ru.practicum.shareit.exception.ErrorResponse;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.throttling.Throttler;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Выполняет GET-подзапросы пакета через отображение запросов Spring MVC и методы контроллеров шлюза,
+ * поэтому пути, значения параметров по умолчанию и проверки те же, что у отдельного запроса.
+ */
+@Component
+public class BatchDispatcher {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final RequestMappingHandlerMapping handlerMapping;
+    private final RequestMappingHandlerAdapter handlerAdapter;
+    private final HandlerMethodArgumentResolverComposite argumentResolvers;
+    private final Throttler throttler;
+
+    public BatchDispatcher(@Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping,
+                           RequestMappingHandlerAdapter handlerAdapter,
+                           ObjectProvider<Throttler> throttler) {
+        this.handlerMapping = handlerMapping;
+        this.handlerAdapter = handlerAdapter;
+        this.argumentResolvers = new HandlerMethodArgumentResolverComposite()
+                .addResolvers(handlerAdapter.getArgumentResolvers());
+        this.throttler = throttler.getIfAvailable();
+    }
+
+    // каждый подзапрос тратит токен клиента и занимает место в ограничении своего endpoint, как отдельный запрос
+    public Mono<SubResponseDto> dispatch(HttpServletRequest request, Long userId, String path) {
+        String remoteAddress = request.getRemoteAddr();
+        // блокирующий клиент выполнил бы подзапросы по очереди в потоке контроллера
+        return Mono.defer(() -> {
+                    if (throttler == null) {
+                        return call(request, userId, path).map(response -> toSubResponse(path, response));
+                    }
+                    String endpoint = Throttler.endpoint(HttpMethod.GET.name(),
+                            UriComponentsBuilder.fromUriString(path).build().getPath());
+                    Throttler.Rejection rejection = throttler.tryAcquire(Throttler.client(userId, remoteAddress),
+                            endpoint);
+                    if (rejection != null) {
+                        return Mono.just(toSubResponse(path, rejection));
+                    }
+                    return Mono.defer(() -> call(request, userId, path))
+                            .map(response -> toSubResponse(path, response))
+                            .doFinally(signal -> throttler.release(endpoint));
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> Mono.just(toSubResponse(path, e)));
+    }
+
+    private Mono<ResponseEntity<?>> call(HttpServletRequest request, Long userId, String path) {
+        SubRequest subRequest = new SubRequest(request, UriComponentsBuilder.fromUriString(path).build(), userId);
+        try {
+            ServletRequestPathUtils.parseAndCache(subRequest);
+            HandlerExecutionChain chain = handlerMapping.getHandler(subRequest);
+            if (chain == null || !(chain.getHandler() instanceof HandlerMethod handlerMethod)
+                    || !Mono.class.equals(handlerMethod.getMethod().getReturnType())) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "Неизвестный путь " + subRequest.getRequestURI());
+            }
+            ServletInvocableHandlerMethod invocable = new ServletInvocableHandlerMethod(handlerMethod);
+            invocable.setHandlerMethodArgumentResolvers(argumentResolvers);
+            invocable.setDataBinderFactory(new ServletRequestDataBinderFactory(null,
+                    handlerAdapter.getWebBindingInitializer()));
+            invocable.setParameterNameDiscoverer(new DefaultParameterNameDiscoverer());
+            Mono<?> result = (Mono<?>) invocable.invokeForRequest(new ServletWebRequest(subRequest),
+                    new ModelAndViewContainer());
+            return result.map(response -> (ResponseEntity<?>) response);
+        } catch (Exception e) {
+            return Mono.error(e);
+        }
+    }
+
+    private static MultiValueMap<String, String> decode(MultiValueMap<String, String> params) {
+        MultiValueMap<String, String> decoded = new LinkedMultiValueMap<>();
+        params.forEach((name, values) -> values.forEach(value -> decoded.add(URLDecoder.decode(name,
+                StandardCharsets.UTF_8), value == null ? "" : URLDecoder.decode(value, StandardCharsets.UTF_8))));
+        return decoded;
+    }
+
+    private static SubResponseDto toSubResponse(String path, ResponseEntity<?> response) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(response.getHeaders());
+        MediaType contentType = headers.getContentType();
+        headers.remove(HttpHeaders.CONTENT_TYPE);
+
+        Object body = null;
+        if (response.getBody() instanceof byte[] bytes && bytes.length > 0) {
+            String text = new String(bytes, StandardCharsets.UTF_8);
+            body = isJson(contentType) ? new RawValue(text) : text;
+        }
+        return SubResponseDto.builder()
+                .path(path)
+                .status(response.getStatusCode().value())
+                .headers(headers.toSingleValueMap())
+                .body(body)
+                .build();
+    }
+
+    // 400 только для ошибок разбора и проверки параметров, остальное - 500, как у отдельного запроса
+    private static SubResponseDto toSubResponse(String path, Throwable e) {
+        if (e instanceof org.springframework.web.ErrorResponse errorResponse) {
+            return toSubResponse(path, errorResponse.getStatusCode(), "Ошибка запроса",
+                    errorResponse.getBody().getDetail());
+        }
+        if (e instanceof ConstraintViolationException violationException) {
+            String errorMessage = violationException.getConstraintViolations().stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .collect(Collectors.joining("; "));
+            return toSubResponse(path, HttpStatus.BAD_REQUEST, "Ошибка валидации", errorMessage);
+        }
+        if (e instanceof ValidationException || e instanceof jakarta.validation.ValidationException
+                || e instanceof TypeMismatchException || e instanceof BindException) {
+            return toSubResponse(path, HttpStatus.BAD_REQUEST, "Ошибка валидации", e.getMessage());
+        }
+        return toSubResponse(path, HttpStatus.INTERNAL_SERVER_ERROR, "Непредвиденная ошибка:", e.getMessage());
+    }
+
+    private static SubResponseDto toSubResponse(String path, Throttler.Rejection rejection) {
+        return SubResponseDto.builder()
+                .path(path)
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .headers(Map.of(HttpHeaders.RETRY_AFTER, String.valueOf(rejection.retryAfterSeconds())))
+                .body(new ErrorResponse("Слишком много запросов", rejection.message()))
+                .build();
+    }
+
+    private static SubResponseDto toSubResponse(String path, HttpStatusCode status, String error, String description) {
+        return SubResponseDto.builder()
+                .path(path)
+                .status(status.value())
+                .headers(Map.of())
+                .body(new ErrorResponse(error, description))
+                .build();
+    }
+
+    private static boolean isJson(MediaType contentType) {
+        return contentType != null && (MediaType.APPLICATION_JSON.isCompatibleWith(contentType)
+                || "json".equals(contentType.getSubtypeSuffix()));
+    }
+
+    // подзапрос как отдельный GET: свои путь, параметры, заголовок пользователя и атрибуты
+    private static final class SubRequest extends HttpServletRequestWrapper {
+        private final UriComponents uri;
+        private final Map<String, String[]> parameters = new LinkedHashMap<>();
+        private final Map<String, String> headers = new LinkedCaseInsensitiveMap<>();
+        private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+        SubRequest(HttpServletRequest request, UriComponents uri, Long userId) {
+            super(request);
+            this.uri = uri;
+            decode(uri.getQueryParams()).forEach((name, values) -> parameters.put(name, values.toArray(String[]::new)));
+            if (userId != null) {
+                headers.put(USER_HEADER, userId.toString());
+            }
+        }
+
+        @Override
+        public String getMethod() {
+            return HttpMethod.GET.name();
+        }
+
+        @Override
+        public DispatcherType getDispatcherType() {
+            return DispatcherType.REQUEST;
+        }
+
+        @Override
+        public String getRequestURI() {
+            return uri.getPath();
+        }
+
+        @Override
+        public StringBuffer getRequestURL() {
+            return new StringBuffer(getRequestURI());
+        }
+
+        @Override
+        public String getContextPath() {
+            return "";
+        }
+
+        @Override
+        public String getServletPath() {
+            return getRequestURI();
+        }
+
+        @Override
+        public String getPathInfo() {
+            return null;
+        }
+
+        @Override
+        public String getQueryString() {
+            return uri.getQuery();
+        }
+
+        @Override
+        public String getContentType() {
+            return null;
+        }
+
+        @Override
+        public String getParameter(String name) {
+            String[] values = parameters.get(name);
+            return values == null ? null : values[0];
+        }
+
+        @Override
+        public Map<String, String[]> getParameterMap() {
+            return Collections.unmodifiableMap(parameters);
+        }
+
+        @Override
+        public Enumeration<String> getParameterNames() {
+            return Collections.enumeration(parameters.keySet());
+        }
+
+        @Override
+        public String[] getParameterValues(String name) {
+            return parameters.get(name);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return headers.get(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            String value = headers.get(name);
+            return Collections.enumeration(value == null ? List.of() : List.of(value));
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(headers.keySet());
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            return attributes.get(name);
+        }
+
+        @Override
+        public Enumeration<String> getAttributeNames() {
+            return Collections.enumeration(attributes.keySet());
+        }
+
+        @Override
+        public void setAttribute(String name, Object value) {
+            if (value == null) {
+                attributes.remove(name);
+            } else {
+                attributes.put(name, value);
+            }
+        }
+
+        @Override
+        public void removeAttribute(String name) {
+            attributes.remove(name);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.batch.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchRequestDto {
+    @NotEmpty(message = "Пустой список requests")
+    @Size(max = 20, message = "Не больше 20 подзапросов в одном пакете")
+    private List<@Valid SubRequestDto> requests;
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.batch.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SubRequestDto {
+    @NotBlank(message = "Пустой path")
+    @Pattern(regexp = "/.*", message = "path должен начинаться с /")
+    private String path;
+}
@@ -2,15 +2,18 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingSearchParams;
 import ru.practicum.shareit.booking.dto.RequestBookingDto;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.HttpClientProperties;
+import ru.practicum.shareit.client.ServerExchange;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class BookingClient extends BaseClient {
@@ -18,42 +21,56 @@ public class BookingClient extends BaseClient {
 
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
-        );
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, ServerExchange exchange,
+                         HttpClientProperties httpClientProperties) {
+        super(exchange, API_PREFIX, serverUrl + API_PREFIX, httpClientProperties.getDeadline());
     }
 
-    public ResponseEntity<Object> createBooking(long userId, RequestBookingDto requestBookingDto) {
+    public Mono<ResponseEntity<Object>> createBooking(long userId, RequestBookingDto requestBookingDto) {
         return post("", userId, requestBookingDto);
     }
 
-    public ResponseEntity<Object> updateBooking(long userId, long bookingId, Boolean approved) {
+    public Mono<ResponseEntity<Object>> updateBooking(long userId, long bookingId, Boolean approved) {
         return patch("/" + bookingId + "?approved=" + approved, userId);
     }
 
-    public ResponseEntity<Object> getBookingById(long userId, long bookingId) {
+    public Mono<ResponseEntity<Object>> getBookingById(long userId, long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllBookingsByUserId(Long userId, State state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getAllBookingsByUserId(Long userId, State state, Integer from, Integer size,
+                                                               String after, BookingSearchParams params) {
+        return getBookings("", userId, state, from, size, after, params);
     }
 
-    public ResponseEntity<Object> getBookingsByOwnerId(Long userId, State state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getBookingsByOwnerId(Long userId, State state, Integer from, Integer size,
+                                                             String after, BookingSearchParams params) {
+        return getBookings("/owner", userId, state, from, size, after, params);
+    }
+
+    private Mono<ResponseEntity<Object>> getBookings(String path, Long userId, State state, Integer from, Integer size,
+                                                     String after, BookingSearchParams params) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder query = new StringBuilder(path).append("?state={state}&from={from}&size={size}");
+        parameters.put("state", state.name());
+        parameters.put("from", from);
+        parameters.put("size", size);
+        addParameter(query, parameters, "after", after);
+        addParameter(query, parameters, "itemId", params.getItemId());
+        addParameter(query, parameters, "rangeStart", params.getRangeStart());
+        addParameter(query, parameters, "rangeEnd", params.getRangeEnd());
+        if (params.getStatuses() != null && !params.getStatuses().isEmpty()) {
+            addParameter(query, parameters, "statuses", params.getStatuses().stream()
+                    .map(Enum::name)
+                    .collect(Collectors.joining(",")));
+        }
+        return get(query.toString(), userId, parameters);
+    }
+
+    private static void addParameter(StringBuilder query, Map<String, Object> parameters, String name, Object value) {
+        if (value != null) {
+            query.append('&').append(name).append("={").append(name).append('}');
+            parameters.put(name, value);
+        }
     }
 }
@@ -7,10 +7,14 @@ import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingSearchParams;
 import ru.practicum.shareit.booking.dto.RequestBookingDto;
 
 @RestController
+@Validated
 @RequestMapping(path = "/bookings")
 @Slf4j
 @RequiredArgsConstructor
@@ -18,46 +22,50 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                @Valid @RequestBody RequestBookingDto requestBookingDto) {
+    public Mono<ResponseEntity<Object>> createBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      @Valid @RequestBody RequestBookingDto requestBookingDto) {
         log.info("Запрос на добавление бронирования. Пользователь с id {}", userId);
         return bookingClient.createBooking(userId, requestBookingDto);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> updateBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                @PathVariable Long bookingId,
-                                                @RequestParam Boolean approved) {
+    public Mono<ResponseEntity<Object>> updateBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      @PathVariable Long bookingId,
+                                                      @RequestParam Boolean approved) {
         log.info("Запрос на подтверждение бронирования. Пользователь c id {}", userId);
         return bookingClient.updateBooking(userId, bookingId, approved);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBookingById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                 @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBookingById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                       @PathVariable Long bookingId) {
         log.info("Запрос на получение данных о конкретном бронировании. Бронирование с id {}", bookingId);
         return bookingClient.getBookingById(userId, bookingId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllBookingsByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                         @RequestParam(defaultValue = "ALL") String state,
-                                                         @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                         @Positive @RequestParam(defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getAllBookingsByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                               @RequestParam(defaultValue = "ALL") String state,
+                                                               @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                               @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                               @RequestParam(required = false) String after,
+                                                               @Valid BookingSearchParams params) {
         log.info("Запрос на получение списка всех бронирований текущего пользователя с id {}", userId);
         State stateEnum = State.from(state)
                 .orElseThrow(() -> new ValidationException("Неизвестный state: " + state));
-        return bookingClient.getAllBookingsByUserId(userId, stateEnum, from, size);
+        return bookingClient.getAllBookingsByUserId(userId, stateEnum, from, size, after, params);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getBookingsByOwnerId(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                       @RequestParam(defaultValue = "ALL") String state,
-                                                       @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                       @Positive @RequestParam(defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getBookingsByOwnerId(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                             @RequestParam(defaultValue = "ALL") String state,
+                                                             @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                             @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                             @RequestParam(required = false) String after,
+                                                             @Valid BookingSearchParams params) {
         log.info("Запрос на Получение списка бронирований для всех вещей текущего пользователя с id {}", userId);
         State stateEnum = State.from(state)
                 .orElseThrow(() -> new ValidationException("Неизвестный state: " + state));
-        return bookingClient.getBookingsByOwnerId(userId, stateEnum, from, size);
+        return bookingClient.getBookingsByOwnerId(userId, stateEnum, from, size, after, params);
     }
 }
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.dto;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class ValidRangeValidator implements ConstraintValidator<ValidRange, BookingSearchParams> {
+
+    @Override
+    public boolean isValid(BookingSearchParams params, ConstraintValidatorContext context) {
+        if (params == null || params.getRangeStart() == null || params.getRangeEnd() == null) {
+            return true;
+        }
+        return params.getRangeStart().isBefore(params.getRangeEnd());
+    }
+}
@@ -0,0 +1,160 @@
+package ru.practicum.shareit.client;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Прерыватель цепи клиента сервера ShareIt. Открывается, когда доля ошибок среди последних вызовов
+ * достигает порога; через openDuration пропускает несколько пробных вызовов и по их итогу закрывается
+ * или открывается снова. Состояние меняется под ReentrantLock, а не synchronized, чтобы виртуальный поток
+ * не занимал поток-носитель; о переходе пишется в лог после снятия блокировки.
+ */
+@Slf4j
+public class CircuitBreaker {
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final CircuitBreakerProperties properties;
+    private final boolean[] window;
+    private final Lock lock = new ReentrantLock();
+    private int position;
+    private int calls;
+    private int failures;
+    private volatile State state = State.CLOSED;
+    private long openedAt;
+    private int trialPermits;
+    private int trialSuccesses;
+
+    public CircuitBreaker(String name, CircuitBreakerProperties properties) {
+        this.name = name;
+        this.properties = properties;
+        this.window = new boolean[properties.getSlidingWindowSize()];
+    }
+
+    public boolean tryAcquire() {
+        return locked(() -> {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAt < properties.getOpenDuration().toNanos()) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                trialPermits = properties.getHalfOpenCalls();
+                trialSuccesses = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (trialPermits == 0) {
+                    return false;
+                }
+                trialPermits--;
+            }
+            return true;
+        });
+    }
+
+    public void onSuccess() {
+        update(() -> {
+            if (state == State.HALF_OPEN) {
+                if (++trialSuccesses >= properties.getHalfOpenCalls()) {
+                    resetWindow();
+                    state = State.CLOSED;
+                }
+            } else if (state == State.CLOSED) {
+                record(false);
+            }
+        });
+    }
+
+    public void onFailure() {
+        update(() -> {
+            if (state == State.HALF_OPEN) {
+                open();
+            } else if (state == State.CLOSED) {
+                record(true);
+                if (calls >= properties.getMinimumCalls()
+                        && failures * 100 >= properties.getFailureRateThreshold() * calls) {
+                    open();
+                }
+            }
+        });
+    }
+
+    // отмененный клиентом пробный вызов ничего не говорит о сервере и возвращает разрешение
+    public void onCancel() {
+        update(() -> {
+            if (state == State.HALF_OPEN) {
+                trialPermits++;
+            }
+        });
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long retryAfterSeconds() {
+        return Math.max(1, properties.getOpenDuration().toSeconds());
+    }
+
+    private void record(boolean failure) {
+        if (calls == window.length) {
+            if (window[position]) {
+                failures--;
+            }
+        } else {
+            calls++;
+        }
+        window[position] = failure;
+        if (failure) {
+            failures++;
+        }
+        position = (position + 1) % window.length;
+    }
+
+    private void open() {
+        openedAt = System.nanoTime();
+        resetWindow();
+        state = State.OPEN;
+    }
+
+    private void resetWindow() {
+        position = 0;
+        calls = 0;
+        failures = 0;
+    }
+
+    private void update(Runnable action) {
+        locked(() -> {
+            action.run();
+            return true;
+        });
+    }
+
+    private boolean locked(BooleanSupplier action) {
+        State before;
+        State after;
+        boolean result;
+        lock.lock();
+        try {
+            before = state;
+            result = action.getAsBoolean();
+            after = state;
+        } finally {
+            lock.unlock();
+        }
+        if (before != after) {
+            log.warn("Прерыватель цепи {}: {} -> {}", name, before, after);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+
+@Getter
+public class CircuitBreakerOpenException extends RuntimeException {
+    private final String name;
+    private final long retryAfterSeconds;
+
+    public CircuitBreakerOpenException(String name, long retryAfterSeconds) {
+        super("Запросы к " + name + " временно не выполняются");
+        this.name = name;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class CircuitBreakers {
+    private final CircuitBreakerProperties properties;
+    private final MeterRegistry registry;
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    public CircuitBreakers(CircuitBreakerProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    public CircuitBreaker get(String name) {
+        return circuitBreakers.computeIfAbsent(name, this::create);
+    }
+
+    private CircuitBreaker create(String name) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(name, properties);
+        Gauge.builder("shareit.gateway.circuit-breaker.state", circuitBreaker, cb -> cb.getState().ordinal())
+                .tag("client", name)
+                .description("Состояние прерывателя цепи: 0 - закрыт, 1 - открыт, 2 - пробные вызовы")
+                .register(registry);
+        return circuitBreaker;
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+/**
+ * Прерыватель цепи по первому сегменту пути (/items, /bookings, ...). Стоит под объединением запросов,
+ * поэтому учитывает каждый запрос к серверу один раз, сколько бы вызовов шлюза ни ждали его ответа.
+ */
+public class CircuitBreakingServerExchange implements ServerExchange {
+    private final ServerExchange delegate;
+    private final CircuitBreakers circuitBreakers;
+    private final String basePath;
+
+    public CircuitBreakingServerExchange(ServerExchange delegate, CircuitBreakers circuitBreakers, String serverUrl) {
+        this.delegate = delegate;
+        this.circuitBreakers = circuitBreakers;
+        String path = URI.create(serverUrl).getPath();
+        this.basePath = path == null || path.equals("/") ? "" : path.replaceAll("/+$", "");
+    }
+
+    // при открытом прерывателе запрос не занимает соединение и поток, а сразу завершается ошибкой
+    @Override
+    public Mono<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, HttpEntity<?> requestEntity) {
+        return Mono.defer(() -> {
+            CircuitBreaker circuitBreaker = circuitBreakers.get(name(uri));
+            if (!circuitBreaker.tryAcquire()) {
+                return Mono.error(new CircuitBreakerOpenException(circuitBreaker.getName(),
+                        circuitBreaker.retryAfterSeconds()));
+            }
+            return delegate.exchange(method, uri, requestEntity)
+                    .doOnNext(response -> {
+                        if (response.getStatusCode().is5xxServerError()) {
+                            circuitBreaker.onFailure();
+                        } else {
+                            circuitBreaker.onSuccess();
+                        }
+                    })
+                    .doOnError(e -> circuitBreaker.onFailure())
+                    .doOnCancel(circuitBreaker::onCancel);
+        });
+    }
+
+    String name(URI uri) {
+        String path = uri.getPath() == null ? "" : uri.getPath();
+        if (path.startsWith(basePath)) {
+            path = path.substring(basePath.length());
+        }
+        int end = path.indexOf('/', 1);
+        return end < 0 ? path : path.substring(0, end);
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class CoalescingServerExchange implements ServerExchange {
+    // заголовки, от которых зависит ответ сервера; остальные не мешают отдать один ответ нескольким запросам
+    private static final List<String> KEY_HEADERS = List.of("X-Sharer-User-Id", HttpHeaders.ACCEPT,
+            HttpHeaders.ACCEPT_ENCODING, HttpHeaders.IF_NONE_MATCH);
+
+    private final ServerExchange delegate;
+    private final Map<Key, CompletableFuture<ResponseEntity<byte[]>>> inFlight = new ConcurrentHashMap<>();
+    private final Counter upstream;
+    private final Counter coalesced;
+
+    public CoalescingServerExchange(ServerExchange delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.upstream = coalescingCounter(registry, "upstream");
+        this.coalesced = coalescingCounter(registry, "coalesced");
+        Gauge.builder("shareit.gateway.coalescing.ratio", this, CoalescingServerExchange::ratio)
+                .description("Доля GET-запросов, получивших ответ чужого запроса к серверу ShareIt")
+                .register(registry);
+    }
+
+    // одинаковые GET-запросы, пришедшие пока первый ждет ответа, получают его же ответ;
+    // после ответа запись удаляется, так что ответы не кэшируются
+    @Override
+    public Mono<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, HttpEntity<?> requestEntity) {
+        if (!HttpMethod.GET.equals(method)) {
+            return delegate.exchange(method, uri, requestEntity);
+        }
+        return Mono.deferContextual(context -> {
+            Key key = Key.of(uri, requestEntity.getHeaders());
+            CompletableFuture<ResponseEntity<byte[]>> call = new CompletableFuture<>();
+            CompletableFuture<ResponseEntity<byte[]>> existing = inFlight.putIfAbsent(key, call);
+            if (existing != null) {
+                coalesced.increment();
+                return Mono.fromFuture(existing, true);
+            }
+            upstream.increment();
+            // ответ сервера не зависит от отмены вызовов, поэтому запрос подписан отдельно, со сроком первого вызова
+            delegate.exchange(method, uri, requestEntity).contextWrite(context).subscribe(
+                    response -> {
+                        inFlight.remove(key, call);
+                        call.complete(response);
+                    },
+                    error -> {
+                        inFlight.remove(key, call);
+                        call.completeExceptionally(error);
+                    });
+            return Mono.fromFuture(call, true);
+        });
+    }
+
+    private double ratio() {
+        double total = upstream.count() + coalesced.count();
+        return total == 0 ? 0 : coalesced.count() / total;
+    }
+
+    private static Counter coalescingCounter(MeterRegistry registry, String result) {
+        return Counter.builder("shareit.gateway.coalescing.requests")
+                .tag("result", result)
+                .description("GET-запросы к серверу ShareIt: отправленные и объединенные с уже выполняющимися")
+                .register(registry);
+    }
+
+    private record Key(URI uri, List<List<String>> headers) {
+        static Key of(URI uri, HttpHeaders headers) {
+            return new Key(uri, KEY_HEADERS.stream().map(headers::getOrEmpty).toList());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class DeadlineServerExchange implements ServerExchange {
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+    private static final String DEADLINE_KEY = DeadlineServerExchange.class.getName() + ".deadline";
+
+    private final ServerExchange delegate;
+    private final Duration deadline;
+
+    public DeadlineServerExchange(ServerExchange delegate, Duration deadline) {
+        this.delegate = delegate;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Срок ответа на вызов шлюза, общий для всех попыток запроса к серверу.
+     */
+    public static Context withDeadline(Context context, Duration budget) {
+        return context.put(DEADLINE_KEY, System.nanoTime() + budget.toNanos());
+    }
+
+    // сервер получает оставшееся к моменту отправки время и бросает работу, которую шлюз уже не ждет;
+    // повтор на другом экземпляре получает только то, что осталось после первой попытки
+    @Override
+    public Mono<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, HttpEntity<?> requestEntity) {
+        return Mono.deferContextual(context -> {
+            long now = System.nanoTime();
+            long remaining = context.<Long>getOrEmpty(DEADLINE_KEY)
+                    .map(at -> at - now)
+                    .orElseGet(deadline::toNanos);
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(remaining);
+            if (remainingMillis <= 0) {
+                return Mono.error(new TimeoutException("Срок запроса к " + uri + " истек до отправки"));
+            }
+            HttpHeaders headers = new HttpHeaders();
+            headers.addAll(requestEntity.getHeaders());
+            headers.set(TIMEOUT_HEADER, String.valueOf(remainingMillis));
+            return delegate.exchange(method, uri, new HttpEntity<>(requestEntity.getBody(), headers))
+                    .timeout(Duration.ofNanos(remaining));
+        });
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.time.Duration;
+import java.util.function.ToIntFunction;
+
+@Slf4j
+@Configuration
+@EnableConfigurationProperties({HttpClientProperties.class, LoadBalancerProperties.class,
+        CircuitBreakerProperties.class})
+@ConditionalOnProperty(name = "shareit-server.engine", havingValue = "rest-template", matchIfMissing = true)
+public class HttpClientConfig {
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager shareItConnectionManager(HttpClientProperties properties) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxTotal())
+                .setMaxConnPerRoute(properties.getMaxPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.of(responseTimeout(properties)))
+                        .setTimeToLive(TimeValue.of(properties.getTimeToLive()))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient shareItHttpClient(PoolingHttpClientConnectionManager connectionManager,
+                                                 HttpClientProperties properties) {
+        if (properties.getProtocol() == HttpClientProperties.Protocol.H2C) {
+            log.warn("Клиент rest-template работает по HTTP/1.1, h2c доступен с shareit-server.engine=web-client");
+        }
+        HttpClientBuilder builder = HttpClients.custom();
+        if (!properties.isCompression()) {
+            builder.disableContentCompression();
+        }
+        return builder
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(properties.getConnectionRequestTimeout()))
+                        .setResponseTimeout(Timeout.of(responseTimeout(properties)))
+                        .setConnectionKeepAlive(TimeValue.of(properties.getKeepAlive()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(properties.getIdleEviction()))
+                .build();
+    }
+
+    @Bean
+    public ClientHttpRequestFactory shareItRequestFactory(CloseableHttpClient httpClient) {
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    @Bean
+    public ServerExchange restTemplateServerExchange(RestTemplateBuilder builder,
+                                                     ClientHttpRequestFactory requestFactory,
+                                                     HttpClientProperties properties,
+                                                     ServerInstances instances,
+                                                     CircuitBreakers circuitBreakers,
+                                                     @Value("${shareit-server.url}") String serverUrl,
+                                                     MeterRegistry registry) {
+        ServerExchange engine = new RestTemplateServerExchange(builder.requestFactory(() -> requestFactory).build());
+        if (properties.getFormat() == HttpClientProperties.Format.SMILE) {
+            engine = new SmileServerExchange(engine);
+        }
+        return new CoalescingServerExchange(new CircuitBreakingServerExchange(new LoadBalancingServerExchange(
+                new DeadlineServerExchange(engine, properties.getDeadline()), instances), circuitBreakers, serverUrl),
+                registry);
+    }
+
+    @Bean
+    public MeterBinder shareItConnectionPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+        return registry -> {
+            poolGauge(registry, connectionManager, "leased", PoolStats::getLeased);
+            poolGauge(registry, connectionManager, "pending", PoolStats::getPending);
+            poolGauge(registry, connectionManager, "available", PoolStats::getAvailable);
+            poolGauge(registry, connectionManager, "max", PoolStats::getMax);
+        };
+    }
+
+    // после истечения срока вызов шлюза уже получил 504, но поток rest-template остается в чтении ответа;
+    // ожидание ответа не дольше срока ограничивает, сколько потоков и соединений может так висеть
+    private static Duration responseTimeout(HttpClientProperties properties) {
+        return properties.getReadTimeout().compareTo(properties.getDeadline()) < 0
+                ? properties.getReadTimeout() : properties.getDeadline();
+    }
+
+    private static void poolGauge(MeterRegistry registry,
+                                  PoolingHttpClientConnectionManager connectionManager,
+                                  String state, ToIntFunction<PoolStats> value) {
+        Gauge.builder("shareit.gateway.http.connections", connectionManager,
+                        manager -> value.applyAsInt(manager.getTotalStats()))
+                .tag("state", state)
+                .description("Соединения пула HTTP-клиента к серверу ShareIt")
+                .register(registry);
+    }
+}
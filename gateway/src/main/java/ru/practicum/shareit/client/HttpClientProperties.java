@@ -0,0 +1,37 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.http")
+public class HttpClientProperties {
+    private int maxTotal = 200;
+    private int maxPerRoute = 200;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(10);
+    private Duration deadline = Duration.ofSeconds(5);
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+    private Duration keepAlive = Duration.ofSeconds(30);
+    private Duration timeToLive = Duration.ofMinutes(5);
+    private Duration idleEviction = Duration.ofSeconds(30);
+    private boolean compression = true;
+    private Protocol protocol = Protocol.HTTP1;
+    private Format format = Format.JSON;
+
+    public enum Protocol {
+        HTTP1,
+        // HTTP/2 без TLS: запросы мультиплексируются в нескольких соединениях
+        H2C
+    }
+
+    public enum Format {
+        JSON,
+        // бинарный Smile между шлюзом и сервером, клиентам шлюза уходит JSON
+        SMILE
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.balancer")
+public class LoadBalancerProperties {
+    private List<String> urls = new ArrayList<>();
+    // подтверждение, что все экземпляры запущены с shareit.multi-instance=true
+    private boolean multiInstanceServers;
+    private String healthPath = "/actuator/health";
+    private Duration healthInterval = Duration.ofSeconds(5);
+    private Duration healthTimeout = Duration.ofSeconds(1);
+    private int failureThreshold = 3;
+    private Duration ejectionTime = Duration.ofSeconds(10);
+}
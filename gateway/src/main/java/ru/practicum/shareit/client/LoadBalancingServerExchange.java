@@ -0,0 +1,60 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.net.ConnectException;
+import java.net.URI;
+
+public class LoadBalancingServerExchange implements ServerExchange {
+    private final ServerExchange delegate;
+    private final ServerInstances instances;
+
+    public LoadBalancingServerExchange(ServerExchange delegate, ServerInstances instances) {
+        this.delegate = delegate;
+        this.instances = instances;
+    }
+
+    @Override
+    public Mono<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, HttpEntity<?> requestEntity) {
+        return exchange(method, uri, requestEntity, null);
+    }
+
+    // при отказе в соединении запрос не дошел до сервера, поэтому его можно повторить на другом экземпляре
+    private Mono<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, HttpEntity<?> requestEntity,
+                                                  ServerInstances.Instance failed) {
+        return Mono.defer(() -> {
+            ServerInstances.Instance instance = instances.choose(failed);
+            instance.acquire();
+            return delegate.exchange(method, instances.resolve(uri, instance), requestEntity)
+                    .doOnNext(response -> {
+                        if (response.getStatusCode().is5xxServerError()) {
+                            instance.failure();
+                        } else {
+                            instance.success();
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (isConnectFailure(e)) {
+                            instance.eject();
+                        } else {
+                            instance.failure();
+                        }
+                    })
+                    .doFinally(signal -> instance.release())
+                    .onErrorResume(e -> failed == null && instances.size() > 1 && isConnectFailure(e),
+                            e -> exchange(method, uri, requestEntity, instance));
+        });
+    }
+
+    private static boolean isConnectFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+public class RestTemplateServerExchange implements ServerExchange {
+    private final RestTemplate rest;
+
+    public RestTemplateServerExchange(RestTemplate rest) {
+        this.rest = rest;
+        this.rest.setErrorHandler(new PassThroughErrorHandler());
+    }
+
+    // запрос выполняется в потоке контроллера при подписке, как и раньше
+    @Override
+    public Mono<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, HttpEntity<?> requestEntity) {
+        return Mono.fromCallable(() -> rest.exchange(uri, method, requestEntity, byte[].class));
+    }
+
+    private static class PassThroughErrorHandler implements ResponseErrorHandler {
+        @Override
+        public boolean hasError(ClientHttpResponse response) {
+            return false;
+        }
+
+        @Override
+        public void handleError(ClientHttpResponse response) {
+        }
+    }
+}
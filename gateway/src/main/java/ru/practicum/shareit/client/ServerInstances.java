@@ -0,0 +1,180 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Экземпляры сервера ShareIt: выбор наименее загруженного, исключение по ошибкам и проверка health.
+ */
+@Slf4j
+@Component
+public class ServerInstances implements InitializingBean, DisposableBean {
+    private final String serverUrl;
+    private final LoadBalancerProperties properties;
+    private final List<Instance> instances;
+    private ScheduledExecutorService scheduler;
+    private HttpClient healthClient;
+
+    public ServerInstances(@Value("${shareit-server.url}") String serverUrl,
+                           LoadBalancerProperties properties,
+                           MeterRegistry registry) {
+        this.serverUrl = trimSlash(serverUrl);
+        this.properties = properties;
+        this.instances = (properties.getUrls().isEmpty() ? List.of(serverUrl) : properties.getUrls()).stream()
+                .map(url -> new Instance(trimSlash(url)))
+                .toList();
+        // экземпляр в обычном режиме хранит в памяти индекс броней и кэш карточек, которые не видят
+        // изменений на других экземплярах
+        if (instances.size() > 1 && !properties.isMultiInstanceServers()) {
+            throw new IllegalStateException("Для нескольких экземпляров в shareit-server.balancer.urls сервер "
+                    + "должен работать с shareit.multi-instance=true, что подтверждает "
+                    + "shareit-server.balancer.multi-instance-servers=true");
+        }
+        for (Instance instance : instances) {
+            Gauge.builder("shareit.gateway.balancer.outstanding", instance, i -> i.outstanding.get())
+                    .tag("instance", instance.url)
+                    .description("Запросы к экземпляру сервера ShareIt, ожидающие ответа")
+                    .register(registry);
+            Gauge.builder("shareit.gateway.balancer.available", instance, i -> i.isAvailable(System.nanoTime()) ? 1 : 0)
+                    .tag("instance", instance.url)
+                    .description("Получает ли экземпляр сервера ShareIt запросы")
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (instances.size() < 2) {
+            return;
+        }
+        healthClient = HttpClient.newBuilder()
+                .connectTimeout(properties.getHealthTimeout())
+                .build();
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("shareit-health-probe")
+                .daemon()
+                .factory());
+        long interval = properties.getHealthInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::probe, 0, interval, TimeUnit.MILLISECONDS);
+        log.info("Запросы распределяются между экземплярами сервера {}",
+                instances.stream().map(instance -> instance.url).toList());
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            healthClient.close();
+        }
+    }
+
+    int size() {
+        return instances.size();
+    }
+
+    // наименьшее число ожидающих ответа запросов; равные экземпляры перебираются со случайного,
+    // чтобы простаивающие не получали запросы всегда в одном порядке
+    Instance choose(Instance excluded) {
+        long now = System.nanoTime();
+        Instance best = choose(excluded, now, true);
+        // если исключены все, запрос лучше попробовать, чем сразу отказать
+        return best != null ? best : choose(excluded, now, false);
+    }
+
+    private Instance choose(Instance excluded, long now, boolean availableOnly) {
+        Instance best = null;
+        int start = ThreadLocalRandom.current().nextInt(instances.size());
+        for (int i = 0; i < instances.size(); i++) {
+            Instance candidate = instances.get((start + i) % instances.size());
+            if (candidate == excluded || (availableOnly && !candidate.isAvailable(now))) {
+                continue;
+            }
+            if (best == null || candidate.outstanding.get() < best.outstanding.get()) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    URI resolve(URI uri, Instance instance) {
+        String target = uri.toString();
+        return target.startsWith(serverUrl) ? URI.create(instance.url + target.substring(serverUrl.length())) : uri;
+    }
+
+    private void probe() {
+        for (Instance instance : instances) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(instance.url + properties.getHealthPath()))
+                    .timeout(properties.getHealthTimeout())
+                    .build();
+            healthClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> instance.setHealthy(error == null && response.statusCode() == 200));
+        }
+    }
+
+    private static String trimSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    class Instance {
+        private final String url;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private volatile long ejectedUntil = System.nanoTime();
+        private volatile boolean healthy = true;
+
+        Instance(String url) {
+            this.url = url;
+        }
+
+        void acquire() {
+            outstanding.incrementAndGet();
+        }
+
+        void release() {
+            outstanding.decrementAndGet();
+        }
+
+        void success() {
+            failures.set(0);
+        }
+
+        void failure() {
+            if (failures.incrementAndGet() >= properties.getFailureThreshold()) {
+                eject();
+            }
+        }
+
+        void eject() {
+            failures.set(0);
+            ejectedUntil = System.nanoTime() + properties.getEjectionTime().toNanos();
+            log.warn("Экземпляр сервера {} исключен на {}", url, properties.getEjectionTime());
+        }
+
+        private boolean isAvailable(long now) {
+            return healthy && now - ejectedUntil >= 0;
+        }
+
+        private void setHealthy(boolean healthy) {
+            if (this.healthy != healthy) {
+                log.warn("Экземпляр сервера {} {}", url, healthy ? "снова доступен" : "не прошел проверку health");
+            }
+            this.healthy = healthy;
+        }
+    }
+}
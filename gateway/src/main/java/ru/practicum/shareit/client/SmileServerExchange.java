@@ -0,0 +1,70 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Просит у сервера ответ в Smile и перекодирует его в JSON потоково, без разбора в объекты,
+ * поэтому клиенты шлюза по-прежнему получают JSON.
+ */
+public class SmileServerExchange implements ServerExchange {
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private static final SmileFactory SMILE_FACTORY = new SmileFactory();
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final ServerExchange delegate;
+
+    public SmileServerExchange(ServerExchange delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Mono<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, HttpEntity<?> requestEntity) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(requestEntity.getHeaders());
+        // сервер без поддержки Smile ответит JSON, он передается как есть
+        headers.setAccept(List.of(APPLICATION_SMILE, MediaType.APPLICATION_JSON));
+        return delegate.exchange(method, uri, new HttpEntity<>(requestEntity.getBody(), headers))
+                .map(SmileServerExchange::toJson);
+    }
+
+    private static ResponseEntity<byte[]> toJson(ResponseEntity<byte[]> response) {
+        MediaType contentType = response.getHeaders().getContentType();
+        if (!response.hasBody() || contentType == null || !APPLICATION_SMILE.isCompatibleWith(contentType)) {
+            return response;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(response.getHeaders());
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        return new ResponseEntity<>(transcode(response.getBody()), headers, response.getStatusCode());
+    }
+
+    private static byte[] transcode(byte[] smile) {
+        ByteArrayOutputStream json = new ByteArrayOutputStream(smile.length * 2);
+        try (JsonParser parser = SMILE_FACTORY.createParser(smile);
+             JsonGenerator generator = JSON_FACTORY.createGenerator(json)) {
+            while (parser.nextToken() != null) {
+                generator.copyCurrentStructure(parser);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return json.toByteArray();
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+@Configuration
+@EnableConfigurationProperties({HttpClientProperties.class, LoadBalancerProperties.class,
+        CircuitBreakerProperties.class})
+@ConditionalOnProperty(name = "shareit-server.engine", havingValue = "web-client")
+public class WebClientConfig {
+
+    // ожидающие ответа запросы не занимают потоки: ввод-вывод обслуживают event loop потоки Netty
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareItConnectionProvider(HttpClientProperties properties) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(properties.getMaxTotal())
+                .pendingAcquireTimeout(properties.getConnectionRequestTimeout())
+                .pendingAcquireMaxCount(-1)
+                .maxIdleTime(properties.getIdleEviction())
+                .maxLifeTime(properties.getTimeToLive())
+                .evictInBackground(properties.getIdleEviction())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public ServerExchange webClientServerExchange(WebClient.Builder builder, ConnectionProvider connectionProvider,
+                                                  HttpClientProperties properties, ServerInstances instances,
+                                                  CircuitBreakers circuitBreakers,
+                                                  @Value("${shareit-server.url}") String serverUrl,
+                                                  MeterRegistry registry) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout())
+                .compress(properties.isCompression())
+                .protocol(properties.getProtocol() == HttpClientProperties.Protocol.H2C
+                        ? HttpProtocol.H2C : HttpProtocol.HTTP11);
+        ServerExchange engine = new WebClientServerExchange(builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build());
+        if (properties.getFormat() == HttpClientProperties.Format.SMILE) {
+            engine = new SmileServerExchange(engine);
+        }
+        return new CoalescingServerExchange(new CircuitBreakingServerExchange(new LoadBalancingServerExchange(
+                new DeadlineServerExchange(engine, properties.getDeadline()), instances), circuitBreakers, serverUrl),
+                registry);
+    }
+}
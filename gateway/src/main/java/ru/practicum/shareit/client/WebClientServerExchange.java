@@ -0,0 +1,29 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+public class WebClientServerExchange implements ServerExchange {
+    private final WebClient webClient;
+
+    public WebClientServerExchange(WebClient webClient) {
+        this.webClient = webClient;
+    }
+
+    // ответы 4xx и 5xx не превращаются в исключения и передаются клиенту как есть
+    @Override
+    public Mono<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, HttpEntity<?> requestEntity) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(uri)
+                .headers(headers -> headers.addAll(requestEntity.getHeaders()));
+        if (requestEntity.hasBody()) {
+            request.bodyValue(requestEntity.getBody());
+        }
+        return request.exchangeToMono(response -> response.toEntity(byte[].class));
+    }
+}
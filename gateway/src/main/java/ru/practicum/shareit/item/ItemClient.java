@@ -2,12 +2,12 @@ package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.HttpClientProperties;
+import ru.practicum.shareit.client.ServerExchange;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
@@ -18,41 +18,59 @@ public class ItemClient extends BaseClient {
 
     private static final String API_PREFIX = "/items";
 
+    private final ItemSearchCache searchCache;
+
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
-        );
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, ServerExchange exchange,
+                      HttpClientProperties httpClientProperties,
+                      ItemSearchCache searchCache) {
+        super(exchange, API_PREFIX, serverUrl + API_PREFIX, httpClientProperties.getDeadline());
+        this.searchCache = searchCache;
     }
 
-    public ResponseEntity<Object> getItemById(long itemId, long userId) {
+    public Mono<ResponseEntity<Object>> getItemById(long itemId, long userId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getItemsByUserId(long userId) {
-        return get("", userId);
+    public Mono<ResponseEntity<Object>> getItemsByUserId(long userId, Integer from, Integer size) {
+        if (size == null) {
+            return get("", userId);
+        }
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemsByText(long userId, String text) {
+    // результат поиска не зависит от пользователя, поэтому одинаковые запросы разных пользователей объединяются
+    // и кэшируются; на сервер уходит нормализованный текст, чтобы ответ совпадал с закэшированным
+    public Mono<ResponseEntity<Object>> getItemsByText(String text, Integer from, Integer size) {
+        ItemSearchCache.Key key = new ItemSearchCache.Key(ItemSearchCache.normalize(text), from, size);
+        ResponseEntity<Object> cached = searchCache.get(key);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        long generation = searchCache.generation();
         Map<String, Object> parameters = Map.of(
-                "text", text
+                "text", key.text(),
+                "from", from,
+                "size", size
         );
-        return get("/search?text={text}", userId, parameters);
+        return get("/search?text={text}&from={from}&size={size}", null, parameters)
+                .doOnNext(response -> searchCache.put(key, generation, response));
     }
 
-    public ResponseEntity<Object> createItem(long userId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> createItem(long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> updateItem(Long userId, Long itemId, ItemDto newItemDto) {
+    public Mono<ResponseEntity<Object>> updateItem(Long userId, Long itemId, ItemDto newItemDto) {
         return patch("/" + itemId, userId, newItemDto);
 
     }
 
-    public ResponseEntity<Object> addComment(Long userId, Long itemId, CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> addComment(Long userId, Long itemId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
 
     }
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.item;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Ответы /items/search не зависят от пользователя, поэтому шлюз хранит их недолго и отдает популярные
+ * запросы без обращения к серверу. Сервер сообщает об изменении вещей, и затронутые ответы удаляются.
+ */
+@Slf4j
+@Component
+public class ItemSearchCache implements MeterBinder {
+    private static final int ENTRY_OVERHEAD = 256;
+
+    private final Cache<Key, ResponseEntity<Object>> cache;
+    // ответ, запрошенный до сброса, не должен попасть в кэш после него
+    private final AtomicLong generation = new AtomicLong();
+
+    public ItemSearchCache(@Value("${shareit.search-cache.max-size:16MB}") DataSize maxSize,
+                           @Value("${shareit.search-cache.ttl:30s}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Key key, ResponseEntity<Object> response) -> weigh(key, response))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    // регистр и пробелы по краям не меняют результат поиска, поэтому не должны плодить записи
+    public static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public ResponseEntity<Object> get(Key key) {
+        return cache.getIfPresent(key);
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    // проверка поколения и запись атомарны для ключа: сброс либо сменит поколение до проверки,
+    // либо дождется записи и удалит ее
+    public void put(Key key, long generation, ResponseEntity<Object> response) {
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            return;
+        }
+        cache.asMap().compute(key, (k, current) -> this.generation.get() == generation ? response : current);
+    }
+
+    // вещь может входить только в результаты запросов, все слова которых встречаются в ее текстах
+    public void invalidate(Collection<String> texts) {
+        generation.incrementAndGet();
+        if (texts == null || texts.isEmpty()) {
+            cache.invalidateAll();
+            log.debug("Кэш поиска очищен");
+            return;
+        }
+        String itemText = texts.stream()
+                .filter(text -> text != null)
+                .map(text -> text.toLowerCase(Locale.ROOT))
+                .collect(Collectors.joining("\n"));
+        cache.asMap().keySet().removeIf(key -> key.mayMatch(itemText));
+        log.debug("Из кэша поиска удалены ответы по текстам {}", texts);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "itemSearch");
+    }
+
+    private static int weigh(Key key, ResponseEntity<Object> response) {
+        int body = response.getBody() instanceof byte[] bytes ? bytes.length : 0;
+        return ENTRY_OVERHEAD + key.text().length() * 2 + body;
+    }
+
+    public record Key(String text, int from, int size) {
+        boolean mayMatch(String itemText) {
+            String[] words = text.split("[^\\p{L}\\p{N}]+");
+            // без слов запрос вроде "%" совпадает с чем угодно
+            return Arrays.stream(words).allMatch(String::isEmpty)
+                    || Arrays.stream(words).filter(word -> !word.isEmpty()).allMatch(itemText::contains);
+        }
+    }
+}
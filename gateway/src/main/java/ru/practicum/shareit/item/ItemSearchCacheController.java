@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.item.dto.SearchInvalidationDto;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+@RestController
+@RequestMapping(path = "/internal/search-cache")
+@Slf4j
+public class ItemSearchCacheController {
+    public static final String SECRET_HEADER = "X-Internal-Secret";
+
+    private final ItemSearchCache itemSearchCache;
+    private final byte[] secret;
+
+    // сбросы принимаются только от сервера, знающего общий секрет; без секрета ответы живут до истечения ttl
+    public ItemSearchCacheController(ItemSearchCache itemSearchCache,
+                                     @Value("${shareit.search-cache.secret:}") String secret) {
+        this.itemSearchCache = itemSearchCache;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        if (secret.isEmpty()) {
+            log.warn("Не задан shareit.search-cache.secret, сбросы кэша поиска от сервера не принимаются");
+        }
+    }
+
+    @PostMapping("/invalidations")
+    public ResponseEntity<Void> invalidate(@RequestHeader(value = SECRET_HEADER, required = false) String secret,
+                                           @RequestBody SearchInvalidationDto invalidationDto) {
+        if (!isTrusted(secret)) {
+            log.warn("Отклонен запрос на сброс кэша поиска без верного {}", SECRET_HEADER);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        log.info("Запрос сервера на сброс кэша поиска");
+        itemSearchCache.invalidate(invalidationDto.getTexts());
+        return ResponseEntity.noContent().build();
+    }
+
+    private boolean isTrusted(String secret) {
+        return this.secret.length > 0 && secret != null
+                && MessageDigest.isEqual(this.secret, secret.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.throttling;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ведро токенов клиента и ограничения одновременных запросов к тяжелым endpoint. Общие для отдельных
+ * запросов и подзапросов POST /batch.
+ */
+@Slf4j
+public class Throttler {
+    private static final String OTHER_ENDPOINT = "other";
+
+    private final UserRateLimiter rateLimiter;
+    private final Map<String, Semaphore> bulkheads = new HashMap<>();
+    private final MeterRegistry registry;
+
+    public Throttler(ThrottlingProperties properties, MeterRegistry registry) {
+        this.rateLimiter = new UserRateLimiter(properties.getRate(), properties.getBurst(), properties.getMaxUsers());
+        this.registry = registry;
+        Gauge.builder("shareit.gateway.throttling.users", rateLimiter, UserRateLimiter::size)
+                .description("Пользователи, для которых хранится ведро токенов")
+                .register(registry);
+        properties.getBulkheads().forEach((endpoint, limit) -> {
+            Semaphore bulkhead = new Semaphore(limit);
+            bulkheads.put(endpoint, bulkhead);
+            Gauge.builder("shareit.gateway.throttling.active", bulkhead, b -> limit - b.availablePermits())
+                    .tag("endpoint", endpoint)
+                    .description("Одновременные запросы к endpoint с ограничением")
+                    .register(registry);
+        });
+    }
+
+    /**
+     * Ведро пользователя из X-Sharer-User-Id; без заголовка или с некорректным значением - ведро адреса клиента.
+     */
+    public static Object client(String userHeader, String remoteAddress) {
+        if (userHeader != null) {
+            try {
+                return client(Long.parseLong(userHeader.trim()), remoteAddress);
+            } catch (NumberFormatException e) {
+                return remoteAddress;
+            }
+        }
+        return remoteAddress;
+    }
+
+    public static Object client(Long userId, String remoteAddress) {
+        return userId != null ? userId : remoteAddress;
+    }
+
+    /**
+     * Ключ ограничения одновременных запросов: метод и путь, например "GET /bookings", чтобы создание брони
+     * не ждало места в ограничении тяжелого списка.
+     */
+    public static String endpoint(String method, String path) {
+        return method + " " + path;
+    }
+
+    /**
+     * Берет токен из ведра клиента и место в ограничении endpoint из {@link #endpoint(String, String)}.
+     * Если вернулся null, после запроса нужно вызвать {@link #release(String)}.
+     */
+    public Rejection tryAcquire(Object client, String endpoint) {
+        long wait = rateLimiter.tryAcquire(client, System.nanoTime());
+        if (wait > 0) {
+            return reject(endpoint, "rate", wait, "Превышен лимит запросов "
+                    + (client instanceof Long ? "пользователя с id " : "с адреса ") + client);
+        }
+        Semaphore bulkhead = bulkheads.get(endpoint);
+        if (bulkhead != null && !bulkhead.tryAcquire()) {
+            return reject(endpoint, "concurrency", TimeUnit.SECONDS.toNanos(1),
+                    "Слишком много одновременных запросов к " + endpoint);
+        }
+        return null;
+    }
+
+    public void release(String endpoint) {
+        Semaphore bulkhead = bulkheads.get(endpoint);
+        if (bulkhead != null) {
+            bulkhead.release();
+        }
+    }
+
+    private Rejection reject(String endpoint, String reason, long waitNanos, String message) {
+        Counter.builder("shareit.gateway.throttling.rejected")
+                .tag("reason", reason)
+                .tag("endpoint", bulkheads.containsKey(endpoint) ? endpoint : OTHER_ENDPOINT)
+                .description("Запросы, отклоненные с 429")
+                .register(registry)
+                .increment();
+        log.debug("{}: 429", message);
+        long second = TimeUnit.SECONDS.toNanos(1);
+        return new Rejection(Math.max(1, (waitNanos + second - 1) / second), message);
+    }
+
+    public record Rejection(long retryAfterSeconds, String message) {
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.throttling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ThrottlingProperties.class)
+@ConditionalOnProperty(name = "shareit.throttling.enabled", havingValue = "true", matchIfMissing = true)
+public class ThrottlingConfig {
+
+    @Bean
+    public Throttler throttler(ThrottlingProperties properties, MeterRegistry registry) {
+        return new Throttler(properties, registry);
+    }
+
+    @Bean
+    public ThrottlingFilter throttlingFilter(Throttler throttler, ObjectMapper objectMapper) {
+        return new ThrottlingFilter(throttler, objectMapper);
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.throttling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.exception.ErrorResponse;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ThrottlingFilter extends OncePerRequestFilter {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final String BATCH_PATH = "/batch";
+    private static final String ACTUATOR_PATH = "/actuator/";
+    private static final String INTERNAL_PATH = "/internal/";
+
+    private final Throttler throttler;
+    private final ObjectMapper objectMapper;
+
+    public ThrottlingFilter(Throttler throttler, ObjectMapper objectMapper) {
+        this.throttler = throttler;
+        this.objectMapper = objectMapper;
+    }
+
+    // подзапросы пакета по одному учитывает BatchDispatcher; проверки health и сброс кэша поиска сервером
+    // не должны тратить токены адреса, иначе отклоненный сброс оставит устаревшие результаты до конца ttl
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return BATCH_PATH.equals(path) || path.startsWith(ACTUATOR_PATH) || path.startsWith(INTERNAL_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String endpoint = Throttler.endpoint(request.getMethod(), request.getRequestURI());
+        Throttler.Rejection rejection = throttler.tryAcquire(
+                Throttler.client(request.getHeader(USER_HEADER), request.getRemoteAddr()), endpoint);
+        if (rejection != null) {
+            reject(response, rejection);
+            return;
+        }
+        boolean released = false;
+        try {
+            chain.doFilter(request, response);
+            // контроллеры возвращают Mono: запрос продолжается после выхода из фильтра
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingListener(throttler, endpoint));
+                released = true;
+            }
+        } finally {
+            if (!released) {
+                throttler.release(endpoint);
+            }
+        }
+    }
+
+    private void reject(HttpServletResponse response, Throttler.Rejection rejection) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(rejection.retryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse("Слишком много запросов", rejection.message()));
+    }
+
+    private static class ReleasingListener implements AsyncListener {
+        private final Throttler throttler;
+        private final String endpoint;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleasingListener(Throttler throttler, String endpoint) {
+            this.throttler = throttler;
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                throttler.release(endpoint);
+            }
+        }
+    }
+}
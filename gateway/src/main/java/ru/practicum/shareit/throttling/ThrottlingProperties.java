@@ -0,0 +1,19 @@
+package ru.practicum.shareit.throttling;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.throttling")
+public class ThrottlingProperties {
+    private boolean enabled = true;
+    private double rate = 20;
+    private int burst = 40;
+    private int maxUsers = 100_000;
+    private Map<String, Integer> bulkheads = new LinkedHashMap<>();
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.throttling;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ведра токенов пользователей без блокировок: состояние ведра - одно число, момент, к которому оно
+ * снова наполнится (GCRA), и меняется через compareAndSet.
+ */
+public class UserRateLimiter {
+    private static final long SWEEP_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private final long interval;
+    private final long tolerance;
+    private final int maxUsers;
+    private final Map<Object, AtomicLong> buckets = new ConcurrentHashMap<>();
+    // пользователи сверх maxUsers делят одно ведро, чтобы поток новых id не занимал память без предела
+    private final AtomicLong overflow = new AtomicLong(System.nanoTime());
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+
+    public UserRateLimiter(double rate, int burst, int maxUsers) {
+        this.interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        this.tolerance = interval * (burst - 1);
+        this.maxUsers = maxUsers;
+    }
+
+    /**
+     * @param client id пользователя или адрес клиента
+     * @return 0, если запрос разрешен, иначе сколько наносекунд ждать следующего токена
+     */
+    public long tryAcquire(Object client, long now) {
+        sweepIfDue(now);
+        AtomicLong bucket = buckets.get(client);
+        if (bucket == null) {
+            bucket = buckets.size() < maxUsers ? buckets.computeIfAbsent(client, key -> new AtomicLong(now)) : overflow;
+        }
+        while (true) {
+            long full = bucket.get();
+            long start = full - now > 0 ? full : now;
+            if (start - now > tolerance) {
+                return start - now - tolerance;
+            }
+            if (bucket.compareAndSet(full, start + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    // наполнившееся ведро ничем не отличается от нового, поэтому его можно удалить
+    private void sweepIfDue(long now) {
+        long last = lastSweep.get();
+        if (now - last < SWEEP_INTERVAL || !lastSweep.compareAndSet(last, now)) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+}
@@ -4,10 +4,13 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
 @RestController
+@Validated
 @RequestMapping(path = "/users")
 @Slf4j
 @RequiredArgsConstructor
@@ -15,32 +18,32 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> getUsers() {
+    public Mono<ResponseEntity<Object>> getUsers() {
         log.info("Запрос на получение всех пользователей");
         return userClient.getUsers();
     }
 
     @PostMapping
-    public ResponseEntity<Object> createUser(@Valid @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> createUser(@Valid @RequestBody UserDto userDto) {
         log.info("Запрос на добавление пользователя");
         return userClient.createUser(userDto);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@PathVariable Long userId, @RequestBody UserDto newUserDto) {
+    public Mono<ResponseEntity<Object>> updateUser(@PathVariable Long userId, @RequestBody UserDto newUserDto) {
         log.info("Запрос на обновление пользователя с id {}", userId);
         return userClient.updateUser(userId, newUserDto);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getUserById(@PathVariable Long id) {
+    public Mono<ResponseEntity<Object>> getUserById(@PathVariable Long id) {
         log.info("Запрос на получение пользователя с id {}", id);
         return userClient.getUserById(id);
     }
 
     @DeleteMapping("/{id}")
-    public void delete(@PathVariable Long id) {
+    public Mono<Void> delete(@PathVariable Long id) {
         log.info("Запрос на удаление пользователя с id {}", id);
-        userClient.delete(id);
+        return userClient.delete(id).then();
     }
 }
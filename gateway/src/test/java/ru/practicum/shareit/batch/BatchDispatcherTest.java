@@ -0,0 +1,191 @@
+package ru.practicum.shareit.batch;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.batch.dto.SubResponseDto;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.request.ItemRequestClient;
+import ru.practicum.shareit.request.ItemRequestController;
+import ru.practicum.shareit.throttling.Throttler;
+import ru.practicum.shareit.throttling.ThrottlingProperties;
+import ru.practicum.shareit.user.UserClient;
+import ru.practicum.shareit.user.UserController;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = {BatchController.class, ItemController.class, BookingController.class,
+        ItemRequestController.class, UserController.class})
+@Import({BatchDispatcher.class, BatchDispatcherTest.ThrottlingTestConfig.class})
+class BatchDispatcherTest {
+    private static final String ADDRESS = "10.0.0.1";
+    private static final int BURST = 20;
+
+    @Autowired
+    private BatchDispatcher batchDispatcher;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private ItemClient itemClient;
+
+    @MockBean
+    private BookingClient bookingClient;
+
+    @MockBean
+    private ItemRequestClient itemRequestClient;
+
+    @MockBean
+    private UserClient userClient;
+
+    @Test
+    void constantPathIsMatchedBeforeTemplateTest() {
+        when(itemClient.getItemsByText("дрель", 0, 10)).thenReturn(json("[]"));
+
+        SubResponseDto response = dispatch(1L, "/items/search?text=%D0%B4%D1%80%D0%B5%D0%BB%D1%8C").block();
+
+        assertEquals(200, response.getStatus());
+        verify(itemClient).getItemsByText("дрель", 0, 10);
+        verify(itemClient, never()).getItemById(anyLong(), anyLong());
+    }
+
+    @Test
+    void templatePathTest() {
+        when(itemClient.getItemById(5L, 1L)).thenReturn(json("{\"id\":5}"));
+
+        SubResponseDto response = dispatch(1L, "/items/5").block();
+
+        assertEquals(200, response.getStatus());
+        assertEquals("/items/5", response.getPath());
+    }
+
+    @Test
+    void invalidSubRequestsGetBadRequestTest() {
+        assertEquals(400, dispatch(1L, "/items/search?text=a&size=0").block().getStatus());
+        assertEquals(400, dispatch(1L, "/items/abc").block().getStatus());
+        assertEquals(400, dispatch(1L, "/bookings?state=UNKNOWN").block().getStatus());
+        assertEquals(400, dispatch(1L, "/bookings?rangeStart=2025-03-12T12:00:00"
+                + "&rangeEnd=2025-03-11T12:00:00").block().getStatus());
+        assertEquals(400, dispatch(null, "/items/5").block().getStatus());
+        verifyNoInteractions(itemClient, bookingClient);
+    }
+
+    @Test
+    void unknownPathTest() {
+        SubResponseDto response = dispatch(1L, "/unknown/1").block();
+
+        assertEquals(404, response.getStatus());
+    }
+
+    @Test
+    void responsesKeepRequestOrderTest() throws Exception {
+        when(userClient.getUserById(1L)).thenReturn(json("{\"id\":1}").delayElement(Duration.ofMillis(200)));
+        when(userClient.getUserById(2L)).thenReturn(json("{\"id\":2}"));
+
+        MvcResult result = mvc.perform(post("/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"requests\":[{\"path\":\"/users/1\"},{\"path\":\"/unknown\"},"
+                                + "{\"path\":\"/users/2\"}]}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].path").value("/users/1"))
+                .andExpect(jsonPath("$[0].body.id").value(1))
+                .andExpect(jsonPath("$[1].status").value(404))
+                .andExpect(jsonPath("$[2].path").value("/users/2"))
+                .andExpect(jsonPath("$[2].body.id").value(2));
+    }
+
+    @Test
+    void subRequestsSpendOwnTokensTest() {
+        when(userClient.getUsers()).thenReturn(json("[]"));
+
+        for (int i = 0; i < BURST; i++) {
+            assertEquals(200, dispatch(99L, "/users").block().getStatus());
+        }
+        SubResponseDto response = dispatch(99L, "/users").block();
+
+        assertEquals(429, response.getStatus());
+        assertNotNull(response.getHeaders().get(HttpHeaders.RETRY_AFTER));
+        assertEquals(200, dispatch(98L, "/users").block().getStatus());
+    }
+
+    @Test
+    void bulkheadAppliesToSubRequestsTest() {
+        SubResponseDto response = dispatch(1L, "/requests/all").block();
+
+        assertEquals(429, response.getStatus());
+        verifyNoInteractions(itemRequestClient);
+    }
+
+    @Test
+    void unexpectedErrorIsNotBadRequestTest() {
+        when(userClient.getUsers()).thenThrow(new IllegalArgumentException("Ошибка в клиенте"));
+
+        assertEquals(500, dispatch(1L, "/users").block().getStatus());
+    }
+
+    @Test
+    void onlyGetHandlersAreDispatchedTest() {
+        assertEquals(405, dispatch(1L, "/items/5/comment").block().getStatus());
+        assertEquals(405, dispatch(1L, "/batch").block().getStatus());
+    }
+
+    private Mono<SubResponseDto> dispatch(Long userId, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(ADDRESS);
+        return batchDispatcher.dispatch(request, userId, path);
+    }
+
+    private static Mono<ResponseEntity<Object>> json(String body) {
+        return Mono.just(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @TestConfiguration
+    static class ThrottlingTestConfig {
+        @Bean
+        Throttler throttler() {
+            ThrottlingProperties properties = new ThrottlingProperties();
+            properties.setRate(0.01);
+            properties.setBurst(BURST);
+            properties.setBulkheads(Map.of("GET /requests/all", 0));
+            return new Throttler(properties, new SimpleMeterRegistry());
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    @Test
+    void opensAtFailureRateTest() {
+        CircuitBreaker circuitBreaker = circuitBreaker(50, 10, 4, Duration.ofHours(1), 1);
+
+        call(circuitBreaker, false);
+        call(circuitBreaker, true);
+        call(circuitBreaker, false);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        call(circuitBreaker, true);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+        assertEquals(3600, circuitBreaker.retryAfterSeconds());
+    }
+
+    @Test
+    void staysClosedBelowMinimumCallsTest() {
+        CircuitBreaker circuitBreaker = circuitBreaker(50, 10, 4, Duration.ofHours(1), 1);
+
+        for (int i = 0; i < 3; i++) {
+            call(circuitBreaker, true);
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void slidingWindowForgetsOldCallsTest() {
+        CircuitBreaker circuitBreaker = circuitBreaker(75, 4, 4, Duration.ofHours(1), 1);
+        call(circuitBreaker, true);
+        call(circuitBreaker, true);
+        for (int i = 0; i < 4; i++) {
+            call(circuitBreaker, false);
+        }
+
+        call(circuitBreaker, true);
+        call(circuitBreaker, true);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        call(circuitBreaker, true);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void halfOpenClosesAfterTrialSuccessesTest() {
+        CircuitBreaker circuitBreaker = circuitBreaker(50, 10, 1, Duration.ZERO, 2);
+        call(circuitBreaker, true);
+
+        assertTrue(circuitBreaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquire());
+        assertFalse(circuitBreaker.tryAcquire());
+        circuitBreaker.onSuccess();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        circuitBreaker.onSuccess();
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void halfOpenFailureOpensAgainTest() {
+        CircuitBreaker circuitBreaker = circuitBreaker(50, 10, 1, Duration.ZERO, 2);
+        call(circuitBreaker, true);
+
+        assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void cancelledTrialReturnsPermitTest() {
+        CircuitBreaker circuitBreaker = circuitBreaker(50, 10, 1, Duration.ZERO, 1);
+        call(circuitBreaker, true);
+
+        assertTrue(circuitBreaker.tryAcquire());
+        assertFalse(circuitBreaker.tryAcquire());
+        circuitBreaker.onCancel();
+
+        assertTrue(circuitBreaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void concurrentTrialsOnVirtualThreadsTest() throws InterruptedException {
+        CircuitBreaker circuitBreaker = circuitBreaker(50, 10, 1, Duration.ZERO, 3);
+        call(circuitBreaker, true);
+        AtomicInteger acquired = new AtomicInteger();
+        CountDownLatch ready = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 100; i++) {
+                executor.submit(() -> {
+                    ready.await();
+                    if (circuitBreaker.tryAcquire()) {
+                        acquired.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            ready.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        assertEquals(3, acquired.get());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+    }
+
+    private static void call(CircuitBreaker circuitBreaker, boolean failure) {
+        assertTrue(circuitBreaker.tryAcquire());
+        if (failure) {
+            circuitBreaker.onFailure();
+        } else {
+            circuitBreaker.onSuccess();
+        }
+    }
+
+    private static CircuitBreaker circuitBreaker(int failureRateThreshold, int slidingWindowSize, int minimumCalls,
+                                                 Duration openDuration, int halfOpenCalls) {
+        CircuitBreakerProperties properties = new CircuitBreakerProperties();
+        properties.setFailureRateThreshold(failureRateThreshold);
+        properties.setSlidingWindowSize(slidingWindowSize);
+        properties.setMinimumCalls(minimumCalls);
+        properties.setOpenDuration(openDuration);
+        properties.setHalfOpenCalls(halfOpenCalls);
+        return new CircuitBreaker("/items", properties);
+    }
+}
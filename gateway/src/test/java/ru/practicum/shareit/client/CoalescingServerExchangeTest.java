@@ -0,0 +1,147 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CoalescingServerExchangeTest {
+    private static final URI ITEM = URI.create("http://localhost:9090/items/1");
+
+    private final List<Sinks.One<ResponseEntity<byte[]>>> calls = new ArrayList<>();
+    private final ServerExchange server = (method, uri, requestEntity) -> {
+        Sinks.One<ResponseEntity<byte[]>> call = Sinks.one();
+        calls.add(call);
+        return call.asMono();
+    };
+    private CoalescingServerExchange exchange;
+
+    @BeforeEach
+    void init() {
+        exchange = new CoalescingServerExchange(server, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void identicalGetRequestsShareOneCallTest() {
+        CompletableFuture<ResponseEntity<byte[]>> first = get(exchange, headers(1L));
+        CompletableFuture<ResponseEntity<byte[]>> second = get(exchange, headers(1L));
+
+        assertEquals(1, calls.size());
+        ResponseEntity<byte[]> response = ResponseEntity.ok(new byte[]{1});
+        calls.getFirst().tryEmitValue(response);
+        assertSame(response, first.join());
+        assertSame(response, second.join());
+    }
+
+    @Test
+    void requestsOfDifferentUsersAreNotCoalescedTest() {
+        get(exchange, headers(1L));
+        get(exchange, headers(2L));
+
+        assertEquals(2, calls.size());
+    }
+
+    @Test
+    void conditionalRequestIsNotCoalescedWithPlainTest() {
+        HttpHeaders conditional = headers(1L);
+        conditional.setIfNoneMatch("\"1\"");
+
+        get(exchange, headers(1L));
+        get(exchange, conditional);
+
+        assertEquals(2, calls.size());
+    }
+
+    @Test
+    void headersNotAffectingResponseAreIgnoredTest() {
+        HttpHeaders first = headers(1L);
+        first.set("X-Request-Id", "a");
+        HttpHeaders second = headers(1L);
+        second.set("X-Request-Id", "b");
+
+        get(exchange, first);
+        get(exchange, second);
+
+        assertEquals(1, calls.size());
+    }
+
+    @Test
+    void completedRequestIsNotReusedTest() {
+        get(exchange, headers(1L));
+        calls.getFirst().tryEmitValue(ResponseEntity.ok(new byte[0]));
+
+        get(exchange, headers(1L));
+
+        assertEquals(2, calls.size());
+    }
+
+    @Test
+    void postIsNotCoalescedTest() {
+        exchange.exchange(HttpMethod.POST, ITEM, new HttpEntity<>(headers(1L))).subscribe();
+        exchange.exchange(HttpMethod.POST, ITEM, new HttpEntity<>(headers(1L))).subscribe();
+
+        assertEquals(2, calls.size());
+    }
+
+    @Test
+    void circuitBreakerCountsCoalescedRequestsOnceTest() {
+        CircuitBreakerProperties properties = new CircuitBreakerProperties();
+        properties.setMinimumCalls(2);
+        CircuitBreakers circuitBreakers = new CircuitBreakers(properties, new SimpleMeterRegistry());
+        exchange = new CoalescingServerExchange(new CircuitBreakingServerExchange(server, circuitBreakers,
+                "http://localhost:9090"), new SimpleMeterRegistry());
+
+        for (int i = 0; i < 3; i++) {
+            get(exchange, headers(1L));
+        }
+        calls.getFirst().tryEmitValue(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreakers.get("/items").getState());
+    }
+
+    @Test
+    void halfOpenTrialIsSharedByCoalescedRequestsTest() {
+        CircuitBreakerProperties properties = new CircuitBreakerProperties();
+        properties.setMinimumCalls(1);
+        properties.setOpenDuration(Duration.ZERO);
+        properties.setHalfOpenCalls(1);
+        CircuitBreakers circuitBreakers = new CircuitBreakers(properties, new SimpleMeterRegistry());
+        CircuitBreaker circuitBreaker = circuitBreakers.get("/items");
+        circuitBreaker.tryAcquire();
+        circuitBreaker.onFailure();
+        exchange = new CoalescingServerExchange(new CircuitBreakingServerExchange(server, circuitBreakers,
+                "http://localhost:9090"), new SimpleMeterRegistry());
+
+        CompletableFuture<ResponseEntity<byte[]>> first = get(exchange, headers(1L));
+        CompletableFuture<ResponseEntity<byte[]>> second = get(exchange, headers(1L));
+        calls.getFirst().tryEmitValue(ResponseEntity.ok(new byte[0]));
+
+        assertEquals(HttpStatus.OK, first.join().getStatusCode());
+        assertEquals(HttpStatus.OK, second.join().getStatusCode());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    private static CompletableFuture<ResponseEntity<byte[]>> get(ServerExchange exchange, HttpHeaders headers) {
+        return exchange.exchange(HttpMethod.GET, ITEM, new HttpEntity<>(headers)).toFuture();
+    }
+
+    private static HttpHeaders headers(long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        return headers;
+    }
+}
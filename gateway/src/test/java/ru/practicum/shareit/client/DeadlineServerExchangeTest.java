@@ -0,0 +1,77 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeadlineServerExchangeTest {
+    private static final URI ITEM = URI.create("http://localhost:9090/items/1");
+
+    private final List<Long> sentTimeouts = new ArrayList<>();
+    private final ServerExchange server = (method, uri, requestEntity) -> {
+        sentTimeouts.add(Long.parseLong(requestEntity.getHeaders().getFirst(DeadlineServerExchange.TIMEOUT_HEADER)));
+        return Mono.just(ResponseEntity.ok(new byte[0]));
+    };
+
+    @Test
+    void retrySendsRemainingTimeTest() {
+        Mono<ResponseEntity<byte[]>> call = new DeadlineServerExchange(server, Duration.ofSeconds(5))
+                .exchange(HttpMethod.GET, ITEM, new HttpEntity<>(new HttpHeaders()));
+
+        call.then(Mono.delay(Duration.ofMillis(300)))
+                .then(call)
+                .contextWrite(context -> DeadlineServerExchange.withDeadline(context, Duration.ofSeconds(1)))
+                .block();
+
+        assertEquals(2, sentTimeouts.size());
+        assertTrue(sentTimeouts.get(0) <= 1000 && sentTimeouts.get(0) > 700, sentTimeouts::toString);
+        assertTrue(sentTimeouts.get(1) <= 700, sentTimeouts::toString);
+    }
+
+    @Test
+    void configuredDeadlineWithoutCallDeadlineTest() {
+        new DeadlineServerExchange(server, Duration.ofSeconds(5))
+                .exchange(HttpMethod.GET, ITEM, new HttpEntity<>(new HttpHeaders()))
+                .block();
+
+        assertEquals(List.of(5000L), sentTimeouts);
+    }
+
+    @Test
+    void expiredDeadlineIsNotSentTest() {
+        Mono<ResponseEntity<byte[]>> call = new DeadlineServerExchange(server, Duration.ofSeconds(5))
+                .exchange(HttpMethod.GET, ITEM, new HttpEntity<>(new HttpHeaders()))
+                .contextWrite(context -> DeadlineServerExchange.withDeadline(context, Duration.ZERO));
+
+        RuntimeException e = assertThrows(RuntimeException.class, call::block);
+
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        assertTrue(sentTimeouts.isEmpty());
+    }
+
+    @Test
+    void slowServerTimesOutTest() {
+        Mono<ResponseEntity<byte[]>> call = new DeadlineServerExchange((method, uri, requestEntity) -> Mono.never(),
+                Duration.ofSeconds(5))
+                .exchange(HttpMethod.GET, ITEM, new HttpEntity<>(new HttpHeaders()))
+                .contextWrite(context -> DeadlineServerExchange.withDeadline(context, Duration.ofMillis(100)));
+
+        RuntimeException e = assertThrows(RuntimeException.class, call::block);
+
+        assertInstanceOf(TimeoutException.class, e.getCause());
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ServerInstancesTest {
+    private static final String SERVER_URL = "http://localhost:9090";
+
+    @Test
+    void severalInstancesRequireMultiInstanceServersTest() {
+        LoadBalancerProperties properties = new LoadBalancerProperties();
+        properties.setUrls(List.of("http://localhost:9090", "http://localhost:9091"));
+
+        assertThrows(IllegalStateException.class,
+                () -> new ServerInstances(SERVER_URL, properties, new SimpleMeterRegistry()));
+
+        properties.setMultiInstanceServers(true);
+        assertEquals(2, new ServerInstances(SERVER_URL, properties, new SimpleMeterRegistry()).size());
+    }
+
+    @Test
+    void singleInstanceTest() {
+        ServerInstances instances = new ServerInstances(SERVER_URL, new LoadBalancerProperties(),
+                new SimpleMeterRegistry());
+
+        ServerInstances.Instance instance = instances.choose(null);
+
+        assertEquals(1, instances.size());
+        assertEquals(URI.create("http://localhost:9090/items/1"),
+                instances.resolve(URI.create(SERVER_URL + "/items/1"), instance));
+    }
+}
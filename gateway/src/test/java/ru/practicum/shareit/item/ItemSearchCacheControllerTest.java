@@ -0,0 +1,84 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.throttling.Throttler;
+import ru.practicum.shareit.throttling.ThrottlingFilter;
+import ru.practicum.shareit.throttling.ThrottlingProperties;
+
+import java.util.List;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = ItemSearchCacheController.class)
+@TestPropertySource(properties = "shareit.search-cache.secret=secret")
+@Import(ItemSearchCacheControllerTest.ThrottlingTestConfig.class)
+class ItemSearchCacheControllerTest {
+    private static final int BURST = 2;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private ItemSearchCache itemSearchCache;
+
+    @Test
+    void invalidateWithSecretTest() throws Exception {
+        mvc.perform(invalidation().header(ItemSearchCacheController.SECRET_HEADER, "secret"))
+                .andExpect(status().isNoContent());
+
+        verify(itemSearchCache).invalidate(List.of("Дрель"));
+    }
+
+    @Test
+    void invalidateWithoutSecretTest() throws Exception {
+        mvc.perform(invalidation())
+                .andExpect(status().isForbidden());
+        mvc.perform(invalidation().header(ItemSearchCacheController.SECRET_HEADER, "wrong"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(itemSearchCache);
+    }
+
+    @Test
+    void invalidationsAreNotThrottledTest() throws Exception {
+        for (int i = 0; i < BURST * 5; i++) {
+            mvc.perform(invalidation().header(ItemSearchCacheController.SECRET_HEADER, "secret"))
+                    .andExpect(status().isNoContent());
+        }
+
+        verify(itemSearchCache, times(BURST * 5)).invalidate(List.of("Дрель"));
+    }
+
+    private static MockHttpServletRequestBuilder invalidation() {
+        return post("/internal/search-cache/invalidations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"texts\":[\"Дрель\"]}");
+    }
+
+    @TestConfiguration
+    static class ThrottlingTestConfig {
+        @Bean
+        ThrottlingFilter throttlingFilter(ObjectMapper objectMapper) {
+            ThrottlingProperties properties = new ThrottlingProperties();
+            properties.setRate(0.01);
+            properties.setBurst(BURST);
+            return new ThrottlingFilter(new Throttler(properties, new SimpleMeterRegistry()), objectMapper);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemSearchCacheTest {
+    private final ItemSearchCache cache = new ItemSearchCache(DataSize.ofMegabytes(1), Duration.ofMinutes(1));
+    private final ResponseEntity<Object> response = ResponseEntity.ok(new byte[]{1});
+
+    @Test
+    void normalizeTest() {
+        assertEquals("дрель ударная", ItemSearchCache.normalize("  Дрель Ударная\t"));
+        assertEquals("", ItemSearchCache.normalize("   "));
+    }
+
+    @Test
+    void mayMatchTest() {
+        String itemText = "дрель\nударная, 800 вт";
+
+        assertTrue(key("дрель").mayMatch(itemText));
+        assertTrue(key("рель").mayMatch(itemText));
+        assertTrue(key("ударная дрель").mayMatch(itemText));
+        assertTrue(key("800").mayMatch(itemText));
+        assertTrue(key("%").mayMatch(itemText));
+        assertFalse(key("дрель аккумуляторная").mayMatch(itemText));
+        assertFalse(key("пила").mayMatch(itemText));
+    }
+
+    @Test
+    void invalidateRemovesOnlyMatchingResponsesTest() {
+        cache.put(key("дрель"), cache.generation(), response);
+        cache.put(key("пила"), cache.generation(), response);
+
+        cache.invalidate(List.of("Дрель", "Ударная"));
+
+        assertNull(cache.get(key("дрель")));
+        assertNotNull(cache.get(key("пила")));
+    }
+
+    @Test
+    void invalidateWithoutTextsClearsCacheTest() {
+        cache.put(key("дрель"), cache.generation(), response);
+        cache.put(key("пила"), cache.generation(), response);
+
+        cache.invalidate(null);
+
+        assertNull(cache.get(key("дрель")));
+        assertNull(cache.get(key("пила")));
+    }
+
+    @Test
+    void putAfterInvalidateIsSkippedTest() {
+        long generation = cache.generation();
+
+        cache.invalidate(List.of("Пила"));
+        cache.put(key("дрель"), generation, response);
+
+        assertNull(cache.get(key("дрель")));
+    }
+
+    @Test
+    void errorResponseIsNotCachedTest() {
+        cache.put(key("дрель"), cache.generation(), ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+
+        assertNull(cache.get(key("дрель")));
+    }
+
+    private static ItemSearchCache.Key key(String text) {
+        return new ItemSearchCache.Key(text, 0, 10);
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.throttling;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ThrottlerTest {
+
+    @Test
+    void clientTest() {
+        assertEquals(1L, Throttler.client("1", "10.0.0.1"));
+        assertEquals(1L, Throttler.client("01", "10.0.0.1"));
+        assertEquals(1L, Throttler.client(" 1", "10.0.0.1"));
+        assertEquals("10.0.0.1", Throttler.client((String) null, "10.0.0.1"));
+        assertEquals("10.0.0.1", Throttler.client("abc", "10.0.0.1"));
+    }
+
+    @Test
+    void sameUserInDifferentFormsSharesBucketTest() {
+        ThrottlingProperties properties = new ThrottlingProperties();
+        properties.setBurst(2);
+        Throttler throttler = new Throttler(properties, new SimpleMeterRegistry());
+        String items = Throttler.endpoint("GET", "/items");
+
+        assertNull(throttler.tryAcquire(Throttler.client("1", "10.0.0.1"), items));
+        assertNull(throttler.tryAcquire(Throttler.client("01", "10.0.0.2"), items));
+        Throttler.Rejection rejection = throttler.tryAcquire(Throttler.client(" 1", "10.0.0.3"), items);
+
+        assertNotNull(rejection);
+        assertEquals(1, rejection.retryAfterSeconds());
+        assertNull(throttler.tryAcquire(Throttler.client((String) null, "10.0.0.3"), items));
+    }
+
+    @Test
+    void bulkheadTest() {
+        ThrottlingProperties properties = new ThrottlingProperties();
+        properties.setBulkheads(Map.of("GET /items/search", 1));
+        Throttler throttler = new Throttler(properties, new SimpleMeterRegistry());
+        String search = Throttler.endpoint("GET", "/items/search");
+
+        assertNull(throttler.tryAcquire(1L, search));
+        assertNotNull(throttler.tryAcquire(2L, search));
+        assertNull(throttler.tryAcquire(2L, Throttler.endpoint("GET", "/items")));
+
+        throttler.release(search);
+
+        assertNull(throttler.tryAcquire(2L, search));
+    }
+
+    @Test
+    void bulkheadIsKeyedByMethodTest() {
+        ThrottlingProperties properties = new ThrottlingProperties();
+        properties.setBulkheads(Map.of("GET /bookings", 1));
+        Throttler throttler = new Throttler(properties, new SimpleMeterRegistry());
+
+        assertNull(throttler.tryAcquire(1L, Throttler.endpoint("GET", "/bookings")));
+        assertNotNull(throttler.tryAcquire(2L, Throttler.endpoint("GET", "/bookings")));
+        assertNull(throttler.tryAcquire(3L, Throttler.endpoint("POST", "/bookings")));
+    }
+}
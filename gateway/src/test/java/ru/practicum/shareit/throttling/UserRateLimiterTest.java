@@ -0,0 +1,82 @@
+package ru.practicum.shareit.throttling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserRateLimiterTest {
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final long now = System.nanoTime();
+
+    @Test
+    void burstTest() {
+        UserRateLimiter limiter = new UserRateLimiter(10, 3, 100);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire(1L, now));
+        }
+        assertTrue(limiter.tryAcquire(1L, now) > 0);
+        assertEquals(0, limiter.tryAcquire(2L, now));
+    }
+
+    @Test
+    void waitUntilNextTokenTest() {
+        UserRateLimiter limiter = new UserRateLimiter(10, 3, 100);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(1L, now);
+        }
+
+        assertEquals(INTERVAL, limiter.tryAcquire(1L, now));
+        assertEquals(INTERVAL / 2, limiter.tryAcquire(1L, now + INTERVAL / 2));
+    }
+
+    @Test
+    void refillTest() {
+        UserRateLimiter limiter = new UserRateLimiter(10, 3, 100);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(1L, now);
+        }
+
+        assertEquals(0, limiter.tryAcquire(1L, now + INTERVAL));
+        assertTrue(limiter.tryAcquire(1L, now + INTERVAL) > 0);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire(1L, now + 10 * INTERVAL));
+        }
+    }
+
+    @Test
+    void sweepRemovesFullBucketsTest() {
+        UserRateLimiter limiter = new UserRateLimiter(10, 3, 100);
+        limiter.tryAcquire(1L, now);
+        limiter.tryAcquire(2L, now);
+        assertEquals(2, limiter.size());
+
+        long later = now + TimeUnit.SECONDS.toNanos(2);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(2L, later);
+        }
+
+        assertEquals(1, limiter.size());
+        assertTrue(limiter.tryAcquire(2L, later) > 0);
+    }
+
+    @Test
+    void usersOverLimitShareOneBucketTest() {
+        UserRateLimiter limiter = new UserRateLimiter(10, 3, 1);
+        // общее ведро создается вместе с ограничителем
+        long start = System.nanoTime();
+        limiter.tryAcquire(1L, start);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire(2L + i, start));
+        }
+
+        assertTrue(limiter.tryAcquire(5L, start) > 0);
+        assertEquals(0, limiter.tryAcquire(1L, start));
+        assertEquals(1, limiter.size());
+    }
+}
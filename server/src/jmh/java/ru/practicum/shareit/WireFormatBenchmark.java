@@ -0,0 +1,170 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoForItem;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * JSON против Smile для страниц DTO между сервером и шлюзом: запись на сервере, чтение и перекодирование
+ * в JSON для клиентов шлюза. Размеры страниц без сжатия и с gzip печатаются при подготовке. Запуск:
+ * mvn -P benchmark -pl server test-compile exec:exec -Dbenchmark=WireFormatBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+    private static final int PAGE_SIZE = 50;
+    private static final String[] WORDS = {"дрель", "перфоратор", "палатка", "велосипед", "лестница", "отвертка",
+            "аккумуляторная", "туристическая", "складная", "горный", "ударная", "крестовая"};
+
+    @Param({"bookings", "items"})
+    private String page;
+
+    @Param({"json", "smile"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private JsonFactory jsonFactory;
+    private JavaType type;
+    private List<?> dtos;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        JsonMapper.Builder builder = "smile".equals(format)
+                ? JsonMapper.builder(new SmileFactory())
+                : JsonMapper.builder();
+        objectMapper = builder.findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        jsonFactory = new JsonFactory();
+        Random random = new Random(42);
+        if ("bookings".equals(page)) {
+            dtos = bookings(random);
+            type = objectMapper.getTypeFactory().constructCollectionType(List.class, BookingDto.class);
+        } else {
+            dtos = items(random);
+            type = objectMapper.getTypeFactory().constructCollectionType(List.class, ItemWithBookingDto.class);
+        }
+        payload = write();
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(gzipped)) {
+            out.write(payload);
+        }
+        System.out.printf("%n%d %s as %s: %d bytes, gzip %d bytes%n",
+                PAGE_SIZE, page, format, payload.length, gzipped.size());
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public List<?> read() throws IOException {
+        return objectMapper.readValue(payload, type);
+    }
+
+    // шлюз не разбирает ответ в объекты, а потоково переписывает его в JSON
+    @Benchmark
+    public byte[] toGatewayJson() throws IOException {
+        ByteArrayOutputStream json = new ByteArrayOutputStream(payload.length * 2);
+        try (JsonParser parser = objectMapper.getFactory().createParser(payload);
+             JsonGenerator generator = jsonFactory.createGenerator(json)) {
+            while (parser.nextToken() != null) {
+                generator.copyCurrentStructure(parser);
+            }
+        }
+        return json.toByteArray();
+    }
+
+    private static List<BookingDto> bookings(Random random) {
+        LocalDateTime start = LocalDateTime.of(2025, 3, 12, 12, 0);
+        List<BookingDto> bookings = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            long bookerId = 2L + random.nextInt(1000);
+            bookings.add(BookingDto.builder()
+                    .id(100000L - i)
+                    .start(start.minusHours(i * 7L))
+                    .end(start.minusHours(i * 7L - 24))
+                    .item(ItemDto.builder()
+                            .id(1L + random.nextInt(20000))
+                            .name(word(random) + " " + i)
+                            .description(word(random) + " " + word(random) + " " + word(random))
+                            .available(true)
+                            .build())
+                    .booker(new UserDto(bookerId, "user" + bookerId, "user" + bookerId + "@mail.ru"))
+                    .status(BookingStatus.values()[random.nextInt(BookingStatus.values().length)])
+                    .build());
+        }
+        return bookings;
+    }
+
+    private static List<ItemWithBookingDto> items(Random random) {
+        LocalDateTime now = LocalDateTime.of(2025, 3, 12, 12, 0);
+        List<ItemWithBookingDto> items = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            long itemId = 1L + i;
+            List<CommentDto> comments = new ArrayList<>();
+            for (int j = random.nextInt(4); j > 0; j--) {
+                comments.add(new CommentDto(itemId * 10 + j, word(random) + " " + word(random), itemId,
+                        "user" + random.nextInt(1000), now.minusDays(j)));
+            }
+            items.add(ItemWithBookingDto.builder()
+                    .id(itemId)
+                    .name(word(random) + " " + i)
+                    .description(word(random) + " " + word(random) + " " + word(random))
+                    .available(true)
+                    .lastBooking(booking(random, itemId, now.minusDays(3)))
+                    .nextBooking(booking(random, itemId, now.plusDays(3)))
+                    .comments(comments)
+                    .build());
+        }
+        return items;
+    }
+
+    private static BookingDtoForItem booking(Random random, long itemId, LocalDateTime start) {
+        return new BookingDtoForItem(random.nextLong(1, 200000), itemId, start, start.plusDays(1),
+                2L + random.nextInt(1000), BookingStatus.APPROVED.name());
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}
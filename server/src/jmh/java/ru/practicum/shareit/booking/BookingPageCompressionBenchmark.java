@@ -0,0 +1,114 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Цена gzip для страниц /bookings/owner: сериализация без сжатия и со сжатием на сервере, распаковка в шлюзе.
+ * Размеры тела до и после сжатия печатаются при подготовке. Запуск:
+ * mvn -P benchmark -pl server test-compile exec:exec -Dbenchmark=BookingPageCompressionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingPageCompressionBenchmark {
+    private static final String[] WORDS = {"дрель", "перфоратор", "палатка", "велосипед", "лестница", "отвертка",
+            "аккумуляторная", "туристическая", "складная", "горный", "ударная", "крестовая"};
+
+    @Param({"10", "50", "200"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private List<BookingDto> page;
+    private byte[] gzipped;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        page = page(pageSize);
+        byte[] json = json();
+        gzipped = gzip();
+        System.out.printf("%n%d bookings: json %d bytes, gzip %d bytes (%.0f%%)%n",
+                pageSize, json.length, gzipped.length, 100.0 * gzipped.length / json.length);
+    }
+
+    @Benchmark
+    public byte[] json() throws IOException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] gzip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, page);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] gunzip() throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static List<BookingDto> page(int size) {
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2025, 3, 12, 12, 0);
+        List<BookingDto> bookings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            long bookerId = 2L + random.nextInt(1000);
+            ItemDto item = ItemDto.builder()
+                    .id(1L + random.nextInt(20000))
+                    .name(WORDS[random.nextInt(WORDS.length)] + " " + i)
+                    .description(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                            + " " + WORDS[random.nextInt(WORDS.length)])
+                    .available(true)
+                    .build();
+            bookings.add(BookingDto.builder()
+                    .id(100000L - i)
+                    .start(start.minusHours(i * 7L))
+                    .end(start.minusHours(i * 7L - 24))
+                    .item(item)
+                    .booker(new UserDto(bookerId, "user" + bookerId, "user" + bookerId + "@mail.ru"))
+                    .status(BookingStatus.values()[random.nextInt(BookingStatus.values().length)])
+                    .build());
+        }
+        return bookings;
+    }
+}
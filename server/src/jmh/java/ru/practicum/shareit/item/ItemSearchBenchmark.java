@@ -0,0 +1,104 @@
+package ru.practicum.shareit.item;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.InMemoryItemSearch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemSearchBenchmark {
+    private static final int USERS = 100;
+    private static final int ITEMS = 20000;
+    private static final String[] WORDS = {"дрель", "перфоратор", "палатка", "велосипед", "лестница", "отвертка",
+            "аккумуляторная", "туристическая", "складная", "горный", "ударная", "крестовая"};
+
+    @Param({"дрель", "аккумуляторная дрель", "ка", "несуществующий"})
+    private String text;
+
+    private ConfigurableApplicationContext context;
+    private ItemRepository itemRepository;
+    private InMemoryItemSearch itemSearch;
+    private PageRequest pageRequest;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--shareit.item-search.mode=in-memory",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+        itemRepository = context.getBean(ItemRepository.class);
+        itemSearch = context.getBean(InMemoryItemSearch.class);
+        pageRequest = PageRequest.of(0, 10);
+        seed(context.getBean(JdbcTemplate.class));
+        itemSearch.afterSingletonsInstantiated();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Item> ilike() {
+        return itemRepository.searchByText(text, pageRequest);
+    }
+
+    @Benchmark
+    public List<Item> inMemory() {
+        return itemSearch.search(text, pageRequest);
+    }
+
+    @Benchmark
+    public long[] inMemoryIds() {
+        return itemSearch.findIds(text, pageRequest);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 1; i <= USERS; i++) {
+            users.add(new Object[]{"user" + i, "user" + i + "@mail.ru"});
+        }
+        jdbcTemplate.batchUpdate("insert into users (name, email) values (?, ?)", users);
+
+        Random random = new Random(42);
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 1; i <= ITEMS; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + i;
+            String description = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + WORDS[random.nextInt(WORDS.length)];
+            items.add(new Object[]{name, description, random.nextInt(10) > 0, 1 + random.nextInt(USERS)});
+        }
+        jdbcTemplate.batchUpdate("insert into items (name, description, available, owner) values (?, ?, ?, ?)",
+                items);
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit;
+
+/**
+ * Слабый ETag ответа, собранный из идентификаторов и версий сущностей без сериализации тела.
+ * Тег не зависит от кодирования тела, поэтому такие ответы сжимаются, а сильные Tomcat отдает как есть.
+ */
+public class EntityTag {
+    private static final long PRIME = 0x100000001b3L;
+
+    private long hash = 0xcbf29ce484222325L;
+
+    public EntityTag add(Long value) {
+        return mix(value == null ? Long.MIN_VALUE : value);
+    }
+
+    public EntityTag add(String value) {
+        return value == null ? mix(Long.MIN_VALUE) : mix(value.length()).mix(value.hashCode());
+    }
+
+    private EntityTag mix(long value) {
+        hash = (hash ^ value) * PRIME;
+        hash ^= hash >>> 29;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Бинарный Smile для шлюза: отдается только при Accept: application/x-jackson-smile, остальным клиентам - JSON.
+ */
+@Configuration
+public class SmileConfig {
+
+    // заменяет конвертер Spring MVC по умолчанию, который не видит настроек spring.jackson и пишет даты массивами
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
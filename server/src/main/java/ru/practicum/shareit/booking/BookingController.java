@@ -2,8 +2,12 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.EntityTag;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSearchParams;
+import ru.practicum.shareit.booking.dto.BookingSliceDto;
 import ru.practicum.shareit.booking.dto.RequestBookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
 
@@ -14,6 +18,8 @@ import java.util.List;
 @Slf4j
 @RequiredArgsConstructor
 public class BookingController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
 
     @PostMapping
@@ -32,27 +38,44 @@ public class BookingController {
     }
 
     @GetMapping("/{bookingId}")
-    public BookingDto getBookingById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                     @PathVariable Long bookingId) {
+    public ResponseEntity<BookingDto> getBookingById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                     @PathVariable Long bookingId) {
         log.info("Запрос на получение данных о конкретном бронировании. Бронирование с id {}", bookingId);
-        return bookingService.getBookingById(userId, bookingId);
+        BookingDto booking = bookingService.getBookingById(userId, bookingId);
+        return ResponseEntity.ok()
+                .eTag(BookingMapper.appendTag(new EntityTag(), booking).toString())
+                .body(booking);
     }
 
     @GetMapping
-    public List<BookingDto> getAllBookingsByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                   @RequestParam(defaultValue = "ALL") String state,
-                                                   @RequestParam(defaultValue = "0") Integer from,
-                                                   @RequestParam(defaultValue = "10") Integer size) {
+    public ResponseEntity<List<BookingDto>> getAllBookingsByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                   @RequestParam(defaultValue = "ALL") String state,
+                                                                   @RequestParam(defaultValue = "0") Integer from,
+                                                                   @RequestParam(defaultValue = "10") Integer size,
+                                                                   @RequestParam(required = false) String after,
+                                                                   BookingSearchParams params) {
         log.info("Запрос на получение списка всех бронирований текущего пользователя с id {}", userId);
-        return bookingService.getAllBookingsByUserId(userId, state, from, size);
+        return toResponse(bookingService.getAllBookingsByUserId(userId, state, from, size, after, params));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getBookingsByOwnerId(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                 @RequestParam(defaultValue = "ALL") String state,
-                                                 @RequestParam(defaultValue = "0") Integer from,
-                                                 @RequestParam(defaultValue = "10") Integer size) {
+    public ResponseEntity<List<BookingDto>> getBookingsByOwnerId(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                 @RequestParam(defaultValue = "ALL") String state,
+                                                                 @RequestParam(defaultValue = "0") Integer from,
+                                                                 @RequestParam(defaultValue = "10") Integer size,
+                                                                 @RequestParam(required = false) String after,
+                                                                 BookingSearchParams params) {
         log.info("Запрос на Получение списка бронирований для всех вещей текущего пользователя с id {}", userId);
-        return bookingService.getBookingsByOwnerId(userId, state, from, size);
+        return toResponse(bookingService.getBookingsByOwnerId(userId, state, from, size, after, params));
+    }
+
+    private ResponseEntity<List<BookingDto>> toResponse(BookingSliceDto slice) {
+        EntityTag tag = new EntityTag().add(slice.getNextCursor());
+        slice.getBookings().forEach(booking -> BookingMapper.appendTag(tag, booking));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(tag.toString());
+        if (slice.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, slice.getNextCursor());
+        }
+        return response.body(slice.getBookings());
     }
 }
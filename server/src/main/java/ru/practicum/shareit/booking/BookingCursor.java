@@ -0,0 +1,35 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import ru.practicum.shareit.exception.InvalidPaginationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
+
+public class BookingCursor {
+
+    public static String encode(Booking booking) {
+        String value = booking.getStart() + "," + booking.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetScrollPosition decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = value.split(",");
+            if (parts.length != 2) {
+                throw new InvalidPaginationException("Некорректный курсор " + cursor);
+            }
+            return ScrollPosition.forward(Map.of(
+                    "start", LocalDateTime.parse(parts[0]),
+                    "id", Long.parseLong(parts[1])));
+        } catch (InvalidPaginationException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new InvalidPaginationException("Некорректный курсор " + cursor);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.EntityTag;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoForItem;
 import ru.practicum.shareit.booking.dto.RequestBookingDto;
@@ -18,9 +19,18 @@ public class BookingMapper {
                 .item(ItemMapper.toItemDto(booking.getItem()))
                 .booker(UserMapper.toUserDto(booking.getBooker()))
                 .status(booking.getStatus())
+                .version(booking.getVersion())
                 .build();
     }
 
+    public static EntityTag appendTag(EntityTag tag, BookingDto bookingDto) {
+        tag.add(bookingDto.getId()).add(bookingDto.getVersion());
+        ItemMapper.appendTag(tag, bookingDto.getItem());
+        return tag.add(bookingDto.getBooker().getId())
+                .add(bookingDto.getBooker().getName())
+                .add(bookingDto.getBooker().getEmail());
+    }
+
     public static Booking toBooking(RequestBookingDto requestBookingDto, Item item, User user) {
         return Booking.builder()
                 .id(requestBookingDto.getId())
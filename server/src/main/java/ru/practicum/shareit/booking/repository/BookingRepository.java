@@ -1,43 +1,63 @@
 package ru.practicum.shareit.booking.repository;
 
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
 
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-
-    Page<Booking> findByBookerIdOrderByStartDesc(Long bookerId, Pageable pageable);
-
-    Page<Booking> findByBookerIdAndStatus(Long bookerId, BookingStatus status, Pageable pageable);
-
-    Page<Booking> findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(Long bookerId, LocalDateTime now1, LocalDateTime now2, Pageable pageable);
-
-    Page<Booking> findByBookerIdAndEndBeforeOrderByStartDesc(Long bookerId, LocalDateTime now, Pageable pageable);
-
-    Page<Booking> findByBookerIdAndStartAfterOrderByStartDesc(Long bookerId, LocalDateTime now, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdOrderByStartDesc(Long ownerId, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndStatus(Long ownerId, BookingStatus status, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(Long ownerId, LocalDateTime now1, LocalDateTime now2, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndEndBeforeOrderByStartDesc(Long ownerId, LocalDateTime now, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndStartAfterOrderByStartDesc(Long ownerId, LocalDateTime now, Pageable pageable);
-
-    List<Booking> findByItemAndStatusOrderByStart(Item item, BookingStatus bookingStatus);
-
-    List<Booking> findAllByItemInAndStatusOrderByStartAsc(List<Item> items, BookingStatus status);
+import java.util.Optional;
+
+public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {
+
+    @Override
+    @EntityGraph(Booking.ITEM_AND_BOOKER_GRAPH)
+    Optional<Booking> findById(Long id);
+
+    default Window<Booking> search(Specification<Booking> specification, ScrollPosition position, int limit) {
+        return findBy(specification, query -> query
+                .sortBy(Sort.by(Sort.Direction.DESC, "start", "id"))
+                .limit(limit)
+                .scroll(position));
+    }
+
+    @Query(value = "select b.booking_id, b.start_time, b.end_time, b.item_id, b.booker_id, b.status, b.version " +
+            "from bookings as b " +
+            "where b.booking_id in (" +
+            "select (select l.booking_id from bookings as l " +
+            "where l.item_id = i.item_id and l.status = 'APPROVED' and l.start_time < ?2 " +
+            "order by l.start_time desc, l.booking_id desc fetch first 1 rows only) " +
+            "from items as i where i.item_id in ?1 " +
+            "union all " +
+            "select (select n.booking_id from bookings as n " +
+            "where n.item_id = i.item_id and n.status = 'APPROVED' and n.start_time > ?2 " +
+            "order by n.start_time, n.booking_id fetch first 1 rows only) " +
+            "from items as i where i.item_id in ?1)", nativeQuery = true)
+    List<Booking> findLastAndNextApprovedBookings(Collection<Long> itemIds, LocalDateTime now);
+
+    List<Booking> findByStatusInAndEndAfter(List<BookingStatus> statuses, LocalDateTime now);
+
+    @Query("select count(b) > 0 from Booking as b " +
+            "where b.item.id = ?1 and b.status in ?4 and b.start < ?3 and b.end > ?2")
+    boolean existsOverlapping(Long itemId, LocalDateTime start, LocalDateTime end, List<BookingStatus> statuses);
+
+    // проверка статуса и владельца и запись - один UPDATE; 0 строк, если бронь уже рассмотрена или чужая
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking as b set b.status = ?4, b.version = b.version + 1 " +
+            "where b.id = ?1 and b.status = ?3 " +
+            "and b.item.id in (select i.id from Item as i where i.owner.id = ?2)")
+    int updateStatus(Long bookingId, Long ownerId, BookingStatus expected, BookingStatus status);
 
     @Query("select b from Booking as b " +
             "where (b.item.id = ?1 and b.booker.id = ?2 and b.end < ?3)")
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.booking.repository;
+
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRole;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.dto.BookingSearchParams;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookingSpecifications {
+
+    public static Specification<Booking> search(BookingRole role, Long userId, State state, LocalDateTime now,
+                                                 BookingSearchParams params) {
+        return (root, query, cb) -> {
+            if (query.getResultType() != Long.class) {
+                root.fetch("item");
+                root.fetch("booker");
+            }
+            List<Predicate> predicates = new ArrayList<>();
+            if (role == BookingRole.OWNER) {
+                predicates.add(cb.equal(root.get("item").get("owner").get("id"), userId));
+            } else {
+                predicates.add(cb.equal(root.get("booker").get("id"), userId));
+            }
+
+            switch (state) {
+                case CURRENT:
+                    predicates.add(cb.lessThan(root.get("start"), now));
+                    predicates.add(cb.greaterThan(root.get("end"), now));
+                    break;
+                case PAST:
+                    predicates.add(cb.lessThan(root.get("end"), now));
+                    break;
+                case FUTURE:
+                    predicates.add(cb.greaterThan(root.get("start"), now));
+                    break;
+                case WAITING:
+                    predicates.add(cb.equal(root.get("status"), BookingStatus.WAITING));
+                    break;
+                case REJECTED:
+                    predicates.add(cb.equal(root.get("status"), BookingStatus.REJECTED));
+                    break;
+                default:
+                    break;
+            }
+
+            if (params != null) {
+                if (params.getItemId() != null) {
+                    predicates.add(cb.equal(root.get("item").get("id"), params.getItemId()));
+                }
+                if (params.getRangeStart() != null) {
+                    predicates.add(cb.greaterThan(root.get("end"), params.getRangeStart()));
+                }
+                if (params.getRangeEnd() != null) {
+                    predicates.add(cb.lessThan(root.get("start"), params.getRangeEnd()));
+                }
+                if (params.getStatuses() != null && !params.getStatuses().isEmpty()) {
+                    predicates.add(root.get("status").in(params.getStatuses()));
+                }
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -0,0 +1,201 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.Booking;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Занятые интервалы вещей в памяти экземпляра. В одном экземпляре это единственная проверка пересечений броней:
+ * tryReserve занимает интервал до сохранения брони. Индекс видит только брони своего экземпляра,
+ * поэтому при нескольких экземплярах (shareit.multi-instance=true) выключен и пересечения проверяет база.
+ */
+@Component
+public class BookingIntervalIndex {
+    private static final int STRIPES = 64;
+
+    private final boolean enabled;
+    private final ConcurrentMap<Long, ItemTimeline> timelines = new ConcurrentHashMap<>();
+    private final Lock[] locks = new Lock[STRIPES];
+
+    public BookingIntervalIndex(@Value("${shareit.multi-instance:false}") boolean multiInstance) {
+        this.enabled = !multiInstance;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void load(Collection<Booking> bookings) {
+        if (!enabled) {
+            return;
+        }
+        for (Booking booking : bookings) {
+            Long itemId = booking.getItem().getId();
+            Lock lock = lockFor(itemId);
+            lock.lock();
+            try {
+                timelines.computeIfAbsent(itemId, id -> new ItemTimeline()).add(Interval.of(booking));
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (!enabled) {
+            return true;
+        }
+        Lock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            ItemTimeline timeline = timelines.get(itemId);
+            return timeline == null || !timeline.overlaps(start, end);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean tryReserve(Booking booking) {
+        if (!enabled) {
+            return true;
+        }
+        Long itemId = booking.getItem().getId();
+        Lock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            ItemTimeline timeline = timelines.computeIfAbsent(itemId, id -> new ItemTimeline());
+            timeline.evictEndedBefore(LocalDateTime.now());
+            if (timeline.overlaps(booking.getStart(), booking.getEnd())) {
+                return false;
+            }
+            timeline.add(Interval.of(booking));
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(Booking booking) {
+        if (!enabled) {
+            return;
+        }
+        Long itemId = booking.getItem().getId();
+        Lock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            ItemTimeline timeline = timelines.get(itemId);
+            if (timeline == null) {
+                return;
+            }
+            timeline.remove(booking);
+            if (timeline.isEmpty()) {
+                timelines.remove(itemId);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Lock lockFor(Long itemId) {
+        return locks[Math.floorMod(itemId.hashCode(), STRIPES)];
+    }
+
+    // бронь занимает интервал до сохранения, когда id еще нет, поэтому интервал ссылается на саму бронь
+    private record Interval(Booking booking, LocalDateTime start, LocalDateTime end) {
+
+        static Interval of(Booking booking) {
+            return new Interval(booking, booking.getStart(), booking.getEnd());
+        }
+
+        boolean isOf(Booking other) {
+            return booking == other || other.getId() != null && other.getId().equals(booking.getId());
+        }
+    }
+
+    private static final class Block {
+        private LocalDateTime start;
+        private LocalDateTime end;
+        private final List<Interval> intervals = new ArrayList<>();
+
+        Block(Interval interval) {
+            this.start = interval.start();
+            this.end = interval.end();
+            intervals.add(interval);
+        }
+
+        void merge(Block other) {
+            start = other.start.isBefore(start) ? other.start : start;
+            end = other.end.isAfter(end) ? other.end : end;
+            intervals.addAll(other.intervals);
+        }
+    }
+
+    // Непересекающиеся блоки занятого времени, упорядоченные по началу. Пересекающиеся брони
+    // (например, загруженные из базы до появления проверки) склеиваются в один блок.
+    private static final class ItemTimeline {
+        private final NavigableMap<LocalDateTime, Block> blocks = new TreeMap<>();
+
+        boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            Map.Entry<LocalDateTime, Block> floor = blocks.floorEntry(start);
+            if (floor != null && floor.getValue().end.isAfter(start)) {
+                return true;
+            }
+            Map.Entry<LocalDateTime, Block> higher = blocks.higherEntry(start);
+            return higher != null && higher.getValue().start.isBefore(end);
+        }
+
+        void add(Interval interval) {
+            Block block = new Block(interval);
+            Map.Entry<LocalDateTime, Block> floor = blocks.floorEntry(interval.start());
+            if (floor != null && floor.getValue().end.isAfter(interval.start())) {
+                blocks.remove(floor.getKey());
+                block.merge(floor.getValue());
+            }
+            Map.Entry<LocalDateTime, Block> next = blocks.ceilingEntry(interval.start());
+            while (next != null && next.getValue().start.isBefore(block.end)) {
+                blocks.remove(next.getKey());
+                block.merge(next.getValue());
+                next = blocks.ceilingEntry(interval.start());
+            }
+            blocks.put(block.start, block);
+        }
+
+        void remove(Booking booking) {
+            Map.Entry<LocalDateTime, Block> entry = blocks.floorEntry(booking.getStart());
+            if (entry == null || !entry.getValue().intervals.removeIf(i -> i.isOf(booking))) {
+                return;
+            }
+            blocks.remove(entry.getKey());
+            for (Interval interval : entry.getValue().intervals) {
+                add(interval);
+            }
+        }
+
+        void evictEndedBefore(LocalDateTime now) {
+            Map.Entry<LocalDateTime, Block> first = blocks.firstEntry();
+            while (first != null && !first.getValue().end.isAfter(now)) {
+                blocks.pollFirstEntry();
+                first = blocks.firstEntry();
+            }
+        }
+
+        boolean isEmpty() {
+            return blocks.isEmpty();
+        }
+    }
+}
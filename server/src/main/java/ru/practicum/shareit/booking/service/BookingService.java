@@ -1,10 +1,10 @@
 package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSearchParams;
+import ru.practicum.shareit.booking.dto.BookingSliceDto;
 import ru.practicum.shareit.booking.dto.RequestBookingDto;
 
-import java.util.List;
-
 public interface BookingService {
 
     public BookingDto createBooking(Long userId, RequestBookingDto requestBookingDto);
@@ -13,7 +13,9 @@ public interface BookingService {
 
     public BookingDto getBookingById(Long userId, Long bookingId);
 
-    public List<BookingDto> getAllBookingsByUserId(Long userId, String state, Integer from, Integer size);
+    public BookingSliceDto getAllBookingsByUserId(Long userId, String state, Integer from, Integer size,
+                                                  String after, BookingSearchParams params);
 
-    public List<BookingDto> getBookingsByOwnerId(Long userId, String state, Integer from, Integer size);
+    public BookingSliceDto getBookingsByOwnerId(Long userId, String state, Integer from, Integer size,
+                                                String after, BookingSearchParams params);
 }
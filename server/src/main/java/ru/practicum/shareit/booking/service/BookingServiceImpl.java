@@ -2,22 +2,33 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingCursor;
 import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingRole;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.State;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSearchParams;
+import ru.practicum.shareit.booking.dto.BookingSliceDto;
 import ru.practicum.shareit.booking.dto.RequestBookingDto;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingSpecifications;
 import ru.practicum.shareit.exception.AccessDeniedException;
 import ru.practicum.shareit.exception.BookingValidationException;
+import ru.practicum.shareit.exception.InvalidPaginationException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.UnknownBookingStateException;
+import ru.practicum.shareit.item.ItemChangedEvent;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.User;
@@ -25,23 +36,43 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 @Transactional
-public class BookingServiceImpl implements BookingService {
+public class BookingServiceImpl implements BookingService, SmartInitializingSingleton {
+    private static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // до запуска веб-сервера: пока индекс пуст, tryReserve пропустил бы любые пересечения
+    @Override
+    @Transactional(readOnly = true)
+    public void afterSingletonsInstantiated() {
+        if (!bookingIntervalIndex.isEnabled()) {
+            log.info("Индекс интервалов выключен, пересечения броней проверяются только в базе");
+            return;
+        }
+        List<Booking> bookings = bookingRepository.findByStatusInAndEndAfter(ACTIVE_STATUSES, LocalDateTime.now());
+        bookingIntervalIndex.load(bookings);
+        log.info("Загружено {} активных бронирований в индекс интервалов", bookings.size());
+    }
 
     @Override
     public BookingDto createBooking(Long userId, RequestBookingDto requestBookingDto) {
         User booker = userRepository.findById(userId).orElseThrow(() -> new NotFoundException(
                 "пользователь с id " + userId + " не найден"));
-        Item item = itemRepository.findById(requestBookingDto.getItemId()).orElseThrow(() -> new NotFoundException(
-                "Item с id " + requestBookingDto.getItemId() + " не найден"));
+        Long itemId = requestBookingDto.getItemId();
+        Item item = (bookingIntervalIndex.isEnabled() ? itemRepository.findById(itemId)
+                : itemRepository.findByIdForUpdate(itemId)).orElseThrow(
+                () -> new NotFoundException("Item с id " + itemId + " не найден"));
         Booking booking = BookingMapper.toBooking(requestBookingDto, item, booker);
         if (!item.getAvailable()) {
             throw new BookingValidationException("Item не доступен для бронирования");
@@ -52,26 +83,37 @@ public class BookingServiceImpl implements BookingService {
         if (item.getOwner().getId().equals(userId)) {
             throw new NotFoundException("Пользователь не может бронировать свой Item");
         }
+        // один экземпляр: решает индекс под блокировкой своей полосы, без блокировки строки и запроса к базе;
+        // несколько экземпляров: индекс выключен, решает база под блокировкой строки вещи
+        if (bookingIntervalIndex.isEnabled()) {
+            reserveInterval(booking);
+        } else if (bookingRepository.existsOverlapping(item.getId(), booking.getStart(), booking.getEnd(),
+                ACTIVE_STATUSES)) {
+            throw new BookingValidationException("Item уже забронирован на указанный период");
+        }
         booking = bookingRepository.save(booking);
+        eventPublisher.publishEvent(new ItemChangedEvent(item.getId()));
         return BookingMapper.toBookingDto(booking);
     }
 
     @Override
     public BookingDto updateBooking(Long userId, Long bookingId, Boolean approved) {
+        BookingStatus bookingStatus = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        // два одновременных решения владельца не пройдут оба: второй UPDATE не найдет бронь в статусе WAITING
+        int updated = bookingRepository.updateStatus(bookingId, userId, BookingStatus.WAITING, bookingStatus);
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(() -> new NotFoundException(
                 "Бронь с id " + bookingId + " не найдена"));
-        Item item = itemRepository.findById(booking.getItem().getId()).orElseThrow(() -> new NotFoundException(
-                "Item не найден"));
-        if (!item.getOwner().getId().equals(userId)) {
-            throw new AccessDeniedException("Пользователь с id " + userId + " не является владельцем Item с id " +
-                    item.getId());
+        if (updated == 0) {
+            if (!booking.getItem().getOwner().getId().equals(userId)) {
+                throw new AccessDeniedException("Пользователь с id " + userId + " не является владельцем Item с id " +
+                        booking.getItem().getId());
+            }
+            throw new BookingValidationException("Бронь уже рассмотрена, статус " + booking.getStatus());
         }
-        if (booking.getStatus() == BookingStatus.APPROVED) {
-            throw new BookingValidationException("Статус уже утвержден");
+        if (bookingStatus == BookingStatus.REJECTED) {
+            releaseInterval(booking);
         }
-        BookingStatus bookingStatus = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
-        booking.setStatus(bookingStatus);
-        booking = bookingRepository.save(booking);
+        eventPublisher.publishEvent(new ItemChangedEvent(booking.getItem().getId()));
         return BookingMapper.toBookingDto(booking);
     }
 
@@ -87,86 +129,82 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingDto> getAllBookingsByUserId(Long userId, String state, Integer from, Integer size) {
+    public BookingSliceDto getAllBookingsByUserId(Long userId, String state, Integer from, Integer size,
+                                                  String after, BookingSearchParams params) {
+        return getBookings(BookingRole.BOOKER, userId, state, from, size, after, params);
+    }
+
+    @Override
+    public BookingSliceDto getBookingsByOwnerId(Long userId, String state, Integer from, Integer size,
+                                                String after, BookingSearchParams params) {
+        return getBookings(BookingRole.OWNER, userId, state, from, size, after, params);
+    }
+
+    private BookingSliceDto getBookings(BookingRole role, Long userId, String state, Integer from, Integer size,
+                                        String after, BookingSearchParams params) {
         User user = userRepository.findById(userId).orElseThrow(() -> new NotFoundException(
                 "Пользователь с id " + userId + " не найден"
         ));
-
         State bookingState = checkState(state);
+        ScrollPosition position = toScrollPosition(from, size, after);
+        Specification<Booking> specification = BookingSpecifications.search(role, user.getId(), bookingState,
+                LocalDateTime.now(), params);
+        return toBookingSliceDto(bookingRepository.search(specification, position, size));
+    }
 
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        int page = from / size;
-        Pageable pageable = PageRequest.of(page, size, sort);
-
-        LocalDateTime dateTime = LocalDateTime.now();
-        List<Booking> bookingList;
-
-        switch (bookingState) {
-            case ALL:
-                bookingList = bookingRepository.findByBookerIdOrderByStartDesc(user.getId(), pageable).getContent();
-                break;
-            case CURRENT:
-                bookingList = bookingRepository.findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                        user.getId(), dateTime, dateTime, pageable).getContent();
-                break;
-            case PAST:
-                bookingList = bookingRepository.findByBookerIdAndEndBeforeOrderByStartDesc(user.getId(), dateTime, pageable).getContent();
-                break;
-            case FUTURE:
-                bookingList = bookingRepository.findByBookerIdAndStartAfterOrderByStartDesc(user.getId(), dateTime, pageable).getContent();
-                break;
-            case WAITING:
-                bookingList = bookingRepository.findByBookerIdAndStatus(user.getId(), BookingStatus.WAITING, pageable).getContent();
-                break;
-            case REJECTED:
-                bookingList = bookingRepository.findByBookerIdAndStatus(user.getId(), BookingStatus.REJECTED, pageable).getContent();
-                break;
-            default:
-                throw new UnknownBookingStateException("Неизвестный статус");
-
+    private ScrollPosition toScrollPosition(Integer from, Integer size, String after) {
+        if (after != null && !after.isBlank()) {
+            return BookingCursor.decode(after);
+        }
+        if (from < 0 || size <= 0) {
+            throw new InvalidPaginationException("Некорректные параметры пагинации");
         }
-        return bookingList.stream()
+        int offset = from / size * size;
+        // позиция offset(n) указывает на n-й элемент, выборка продолжается со следующего
+        return offset == 0 ? ScrollPosition.offset() : ScrollPosition.offset(offset - 1);
+    }
+
+    private BookingSliceDto toBookingSliceDto(Window<Booking> bookings) {
+        List<BookingDto> bookingDtos = bookings.stream()
                 .map(BookingMapper::toBookingDto)
                 .collect(Collectors.toList());
+        String nextCursor = bookings.hasNext() ? BookingCursor.encode(bookings.getContent().getLast()) : null;
+        return BookingSliceDto.builder()
+                .bookings(bookingDtos)
+                .nextCursor(nextCursor)
+                .build();
     }
 
-    @Override
-    public List<BookingDto> getBookingsByOwnerId(Long userId, String state, Integer from, Integer size) {
-        User user = userRepository.findById(userId).orElseThrow(() -> new NotFoundException(
-                "Пользователь с id " + userId + " не найден"
-        ));
-        State bookingState = checkState(state);
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        int page = from / size;
-        Pageable pageable = PageRequest.of(page, size, sort);
-        List<Booking> bookingList;
-        LocalDateTime dateTime = LocalDateTime.now();
-        switch (bookingState) {
-            case ALL:
-                bookingList = bookingRepository.findByItemOwnerIdOrderByStartDesc(user.getId(), pageable);
-                break;
-            case CURRENT:
-                bookingList = bookingRepository.findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                        user.getId(), dateTime, dateTime, pageable);
-                break;
-            case PAST:
-                bookingList = bookingRepository.findByItemOwnerIdAndEndBeforeOrderByStartDesc(user.getId(), dateTime, pageable);
-                break;
-            case FUTURE:
-                bookingList = bookingRepository.findByItemOwnerIdAndStartAfterOrderByStartDesc(user.getId(), dateTime, pageable);
-                break;
-            case WAITING:
-                bookingList = bookingRepository.findByItemOwnerIdAndStatus(user.getId(), BookingStatus.WAITING, pageable);
-                break;
-            case REJECTED:
-                bookingList = bookingRepository.findByItemOwnerIdAndStatus(user.getId(), BookingStatus.REJECTED, pageable);
-                break;
-            default:
-                throw new UnknownBookingStateException("Неизвестный статус");
+    private void reserveInterval(Booking booking) {
+        if (!bookingIntervalIndex.tryReserve(booking)) {
+            throw new BookingValidationException("Item уже забронирован на указанный период");
         }
-        return bookingList.stream()
-                .map(BookingMapper::toBookingDto)
-                .collect(Collectors.toList());
+        afterCompletion(committed -> {
+            if (!committed) {
+                bookingIntervalIndex.release(booking);
+            }
+        });
+    }
+
+    private void releaseInterval(Booking booking) {
+        afterCompletion(committed -> {
+            if (committed) {
+                bookingIntervalIndex.release(booking);
+            }
+        });
+    }
+
+    private void afterCompletion(Consumer<Boolean> callback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            callback.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.accept(status == STATUS_COMMITTED);
+            }
+        });
     }
 
     private State checkState(String state) {
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.deadline;
+
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.OptionalLong;
+
+/**
+ * Ограничивает транзакцию сроком запроса: Spring передает остаток времени в таймаут каждого
+ * JPA-запроса, и база отменяет запрос, который вызывающий уже не ждет.
+ */
+public class DeadlineJpaTransactionManager extends JpaTransactionManager {
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        OptionalLong remaining = RequestDeadline.remainingMillis();
+        if (remaining.isPresent() && remaining.getAsLong() <= 0) {
+            throw new TransactionTimedOutException("Срок запроса истек до начала транзакции");
+        }
+        super.doBegin(transaction, definition);
+        if (remaining.isPresent()) {
+            EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager
+                    .getResource(obtainEntityManagerFactory());
+            if (holder != null && (!holder.hasTimeout() || holder.getTimeToLiveInMillis() > remaining.getAsLong())) {
+                holder.setTimeoutInMillis(remaining.getAsLong());
+            }
+        }
+    }
+}
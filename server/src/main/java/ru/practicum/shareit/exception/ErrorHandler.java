@@ -1,6 +1,8 @@
 package ru.practicum.shareit.exception;
 
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -35,6 +37,12 @@ public class ErrorHandler {
         return new ErrorResponse("Ошибка бронирования:", e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleInvalidPaginationException(final InvalidPaginationException e) {
+        return new ErrorResponse("Ошибка пагинации:", e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleValidationExceptions(MethodArgumentNotValidException ex) {
@@ -45,6 +53,12 @@ public class ErrorHandler {
         return new ErrorResponse("Ошибка валидации", errorMessage);
     }
 
+    @ExceptionHandler({TransactionTimedOutException.class, QueryTimeoutException.class})
+    @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+    public ErrorResponse handleTimeoutException(final RuntimeException e) {
+        return new ErrorResponse("Время запроса истекло", e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleThrowable(Throwable e) {
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ответы на запросы с Idempotency-Key: завершенные хранятся в памяти, а таблица idempotency_keys
+ * занимает ключ на время выполнения и отвечает на повторы после вытеснения, перезапуска или с другого экземпляра.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore implements MeterBinder {
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<Key, StoredResponse> responses;
+    private final Duration ttl;
+    private final Duration lockTimeout;
+    private final Duration cleanupInterval;
+    private final AtomicLong nextCleanup = new AtomicLong();
+
+    public IdempotencyStore(JdbcTemplate jdbcTemplate,
+                            @Value("${shareit.idempotency.maximum-size:10000}") long maximumSize,
+                            @Value("${shareit.idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${shareit.idempotency.lock-timeout:PT1M}") Duration lockTimeout,
+                            @Value("${shareit.idempotency.cleanup-interval:PT10M}") Duration cleanupInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = ttl;
+        this.lockTimeout = lockTimeout;
+        this.cleanupInterval = cleanupInterval;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Занимает ключ для нового запроса. Возвращает null, если запрос нужно выполнить,
+     * иначе сохраненный ответ или отметку о том, что первый запрос еще выполняется.
+     */
+    public StoredResponse claim(long userId, String key, String fingerprint) {
+        StoredResponse cached = responses.getIfPresent(new Key(userId, key));
+        if (cached != null) {
+            return cached;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        removeExpired(now);
+        if (insert(userId, key, fingerprint, now)) {
+            return null;
+        }
+        StoredResponse stored = find(userId, key);
+        if (stored != null && isStale(stored, now)) {
+            // ключ остался от упавшего запроса или истек, но еще не удален
+            jdbcTemplate.update("delete from idempotency_keys where user_id = ? and idempotency_key = ? and created = ?",
+                    userId, key, stored.created());
+            if (insert(userId, key, fingerprint, now)) {
+                return null;
+            }
+            stored = find(userId, key);
+        }
+        if (stored == null) {
+            return new StoredResponse(fingerprint, null, null, null, now);
+        }
+        if (stored.completed()) {
+            responses.put(new Key(userId, key), stored);
+        }
+        return stored;
+    }
+
+    public void complete(long userId, String key, StoredResponse response) {
+        jdbcTemplate.update("update idempotency_keys set status = ?, content_type = ?, body = ? " +
+                        "where user_id = ? and idempotency_key = ?",
+                response.status(), response.contentType(), response.body(), userId, key);
+        responses.put(new Key(userId, key), response);
+    }
+
+    // запрос не выполнен, повтор с тем же ключом выполнится заново
+    public void release(long userId, String key) {
+        jdbcTemplate.update("delete from idempotency_keys where user_id = ? and idempotency_key = ? and status is null",
+                userId, key);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, responses, "idempotentResponses");
+    }
+
+    private boolean insert(long userId, String key, String fingerprint, LocalDateTime now) {
+        try {
+            jdbcTemplate.update("insert into idempotency_keys (user_id, idempotency_key, fingerprint, created) " +
+                    "values (?, ?, ?, ?)", userId, key, fingerprint, now);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private StoredResponse find(long userId, String key) {
+        List<StoredResponse> found = jdbcTemplate.query("select fingerprint, status, content_type, body, created " +
+                        "from idempotency_keys where user_id = ? and idempotency_key = ?",
+                (rs, rowNum) -> new StoredResponse(rs.getString("fingerprint"),
+                        rs.getObject("status", Integer.class),
+                        rs.getString("content_type"),
+                        rs.getBytes("body"),
+                        rs.getObject("created", LocalDateTime.class)),
+                userId, key);
+        return found.isEmpty() ? null : found.getFirst();
+    }
+
+    private boolean isStale(StoredResponse stored, LocalDateTime now) {
+        Duration age = Duration.between(stored.created(), now);
+        return age.compareTo(stored.completed() ? ttl : lockTimeout) > 0;
+    }
+
+    private void removeExpired(LocalDateTime now) {
+        long next = nextCleanup.get();
+        long current = System.currentTimeMillis();
+        if (current < next || !nextCleanup.compareAndSet(next, current + cleanupInterval.toMillis())) {
+            return;
+        }
+        int removed = jdbcTemplate.update("delete from idempotency_keys where created < ?", now.minus(ttl));
+        if (removed > 0) {
+            log.debug("Удалено {} истекших Idempotency-Key", removed);
+        }
+    }
+
+    private record Key(long userId, String key) {
+    }
+}
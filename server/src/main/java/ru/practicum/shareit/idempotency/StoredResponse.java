@@ -0,0 +1,14 @@
+package ru.practicum.shareit.idempotency;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ответ на запрос с Idempotency-Key; status null - первый запрос с этим ключом еще выполняется.
+ */
+public record StoredResponse(String fingerprint, Integer status, String contentType, byte[] body,
+                             LocalDateTime created) {
+
+    public boolean completed() {
+        return status != null;
+    }
+}
@@ -2,13 +2,16 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.EntityTag;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.util.List;
+import java.util.function.BiConsumer;
 
 @RestController
 @RequestMapping("/items")
@@ -18,21 +21,29 @@ public class ItemController {
     private final ItemService itemService;
 
     @GetMapping("/{itemId}")
-    public ItemWithBookingDto getItemById(@PathVariable Long itemId, @RequestHeader("X-Sharer-User-Id") Long userId) {
+    public ResponseEntity<ItemWithBookingDto> getItemById(@PathVariable Long itemId,
+                                                          @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("Запрос на получение Item с id {}", itemId);
-        return itemService.getItemById(itemId, userId);
+        ItemWithBookingDto item = itemService.getItemById(itemId, userId);
+        return ResponseEntity.ok()
+                .eTag(ItemMapper.appendTag(new EntityTag(), item).toString())
+                .body(item);
     }
 
     @GetMapping
-    public List<ItemWithBookingDto> getItemsByUserId(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public ResponseEntity<List<ItemWithBookingDto>> getItemsByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                     @RequestParam(defaultValue = "0") Integer from,
+                                                                     @RequestParam(required = false) Integer size) {
         log.info("Запрос на получение всех Item пользователя с id {}", userId);
-        return itemService.getItemsByUserId(userId);
+        return toResponse(itemService.getItemsByUserId(userId, from, size), ItemMapper::appendTag);
     }
 
     @GetMapping("/search")
-    public List<ItemDto> getItemsByText(@RequestParam String text) {
+    public ResponseEntity<List<ItemDto>> getItemsByText(@RequestParam String text,
+                                                        @RequestParam(defaultValue = "0") Integer from,
+                                                        @RequestParam(defaultValue = "10") Integer size) {
         log.info("Запрос на получение всех Item по тексту -> {}", text);
-        return itemService.getItemsByText(text);
+        return toResponse(itemService.getItemsByText(text, from, size), ItemMapper::appendTag);
     }
 
     @PostMapping
@@ -56,4 +67,10 @@ public class ItemController {
         log.info("Запрос на добавление комментария от пользователя с id {} предмету с id {}", userId, itemId);
         return itemService.addComment(userId, itemId, commentDto);
     }
+
+    private static <T> ResponseEntity<List<T>> toResponse(List<T> items, BiConsumer<EntityTag, T> appendTag) {
+        EntityTag tag = new EntityTag();
+        items.forEach(item -> appendTag.accept(tag, item));
+        return ResponseEntity.ok().eTag(tag.toString()).body(items);
+    }
 }
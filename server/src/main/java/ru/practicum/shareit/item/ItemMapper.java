@@ -1,5 +1,7 @@
 package ru.practicum.shareit.item;
 
+import ru.practicum.shareit.EntityTag;
+import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 import ru.practicum.shareit.item.model.Item;
@@ -13,6 +15,7 @@ public class ItemMapper {
                 .description(item.getDescription())
                 .available(item.getAvailable())
                 .requestId(item.getItemRequest() == null ? null : item.getItemRequest().getId())
+                .version(item.getVersion())
                 .build();
     }
 
@@ -22,9 +25,32 @@ public class ItemMapper {
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
+                .version(item.getVersion())
                 .build();
     }
 
+    public static EntityTag appendTag(EntityTag tag, ItemDto itemDto) {
+        return tag.add(itemDto.getId()).add(itemDto.getVersion());
+    }
+
+    // бронирования и комментарии не меняются, поэтому достаточно их id; имя автора берется из профиля
+    public static EntityTag appendTag(EntityTag tag, ItemWithBookingDto itemDto) {
+        tag.add(itemDto.getId())
+                .add(itemDto.getVersion())
+                .add(itemDto.getLastBooking() == null ? null : itemDto.getLastBooking().getId())
+                .add(itemDto.getNextBooking() == null ? null : itemDto.getNextBooking().getId());
+        if (itemDto.getComments() != null) {
+            for (CommentDto comment : itemDto.getComments()) {
+                tag.add(comment.getId()).add(comment.getAuthorName());
+            }
+        }
+        return tag;
+    }
+
+    public static ItemSavedEvent toItemSavedEvent(Item item) {
+        return new ItemSavedEvent(item.getId(), item.getName(), item.getDescription(), item.getAvailable());
+    }
+
     public static Item toItem(ItemDto itemDto) {
         return Item.builder()
                 .id(itemDto.getId())
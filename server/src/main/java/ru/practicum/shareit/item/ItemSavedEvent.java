@@ -0,0 +1,4 @@
+package ru.practicum.shareit.item;
+
+public record ItemSavedEvent(Long itemId, String name, String description, Boolean available) {
+}
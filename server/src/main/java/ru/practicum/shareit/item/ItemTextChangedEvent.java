@@ -0,0 +1,6 @@
+package ru.practicum.shareit.item;
+
+import java.util.List;
+
+public record ItemTextChangedEvent(List<String> texts) {
+}
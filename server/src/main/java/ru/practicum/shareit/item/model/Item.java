@@ -33,8 +33,12 @@ public class Item {
     @JoinColumn(name = "owner")
     private User owner;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "request_id")
     private ItemRequest itemRequest;
 
+    @Version
+    @Column(name = "version")
+    private Long version;
+
 }
@@ -1,21 +1,41 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemText;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    // брони одной вещи создаются по очереди, даже если запросы пришли на разные экземпляры сервера
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item as i where i.id = ?1")
+    Optional<Item> findByIdForUpdate(Long id);
+
     @Query("select i " +
             "from Item as i " +
             "where (i.name ilike concat('%', ?1, '%') or i.description ilike concat('%', ?1, '%')) " +
-            "and i.available = true")
-    List<Item> searchByText(String text);
+            "and i.available = true " +
+            "order by i.id")
+    List<Item> searchByText(String text, Pageable pageable);
+
+    @Query(value = "select i.* from items as i " +
+            "where i.available = true and i.search_vector @@ to_tsquery('simple', ?1) " +
+            "order by ts_rank(i.search_vector, to_tsquery('simple', ?1)) desc, i.item_id", nativeQuery = true)
+    List<Item> searchByFullText(String query, Pageable pageable);
+
+    List<ItemText> findAllProjectedBy();
 
     List<Item> findAllByOwnerId(Long ownerId);
 
+    List<Item> findAllByOwnerIdOrderById(Long ownerId, Pageable pageable);
+
     List<Item> findAllByItemRequestId(Long requestId);
 
     List<Item> findAllByItemRequestIdIn(List<Long> requestIds);
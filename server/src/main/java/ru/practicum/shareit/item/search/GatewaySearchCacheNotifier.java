@@ -0,0 +1,94 @@
+package ru.practicum.shareit.item.search;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.ItemTextChangedEvent;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Сообщает шлюзам, что результаты поиска по текстам вещи могли измениться, чтобы они удалили
+ * закэшированные ответы /items/search. Отправка не ждет ответа и не влияет на запрос.
+ */
+@Slf4j
+@Component
+public class GatewaySearchCacheNotifier implements DisposableBean {
+    private static final String INVALIDATION_PATH = "/internal/search-cache/invalidations";
+    private static final String SECRET_HEADER = "X-Internal-Secret";
+    private static final Duration TIMEOUT = Duration.ofSeconds(2);
+
+    private final List<URI> invalidationUris;
+    private final String secret;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+
+    public GatewaySearchCacheNotifier(@Value("${shareit.search-cache.gateway-urls:}") List<String> gatewayUrls,
+                                      @Value("${shareit.search-cache.secret:}") String secret,
+                                      ObjectMapper objectMapper) {
+        List<URI> uris = gatewayUrls.stream()
+                .filter(url -> !url.isBlank())
+                .map(url -> URI.create(url.trim() + INVALIDATION_PATH))
+                .toList();
+        // шлюз принимает сброс только с общим секретом
+        if (!uris.isEmpty() && secret.isEmpty()) {
+            log.warn("Не задан shareit.search-cache.secret, шлюзы не получают сброс кэша поиска");
+            uris = List.of();
+        }
+        this.invalidationUris = uris;
+        this.secret = secret;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(TIMEOUT)
+                .build();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemTextChanged(ItemTextChangedEvent event) {
+        if (invalidationUris.isEmpty()) {
+            return;
+        }
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(Map.of("texts", event.texts().stream()
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .toList()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        for (URI uri : invalidationUris) {
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .timeout(TIMEOUT)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .header(SECRET_HEADER, secret)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                    .build();
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (error != null || response.statusCode() >= 300) {
+                            log.warn("Шлюз {} не принял сброс кэша поиска: {}", uri,
+                                    error != null ? error.getMessage() : response.statusCode());
+                        }
+                    });
+        }
+    }
+
+    @Override
+    public void destroy() {
+        httpClient.close();
+    }
+}
@@ -0,0 +1,234 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.item-search.mode", havingValue = "in-memory")
+public class InMemoryItemSearch implements ItemSearch, SmartInitializingSingleton {
+    private static final int GRAM = 3;
+
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Postings available = new Postings();
+
+    public InMemoryItemSearch(ItemRepository itemRepository,
+                              @Value("${shareit.multi-instance:false}") boolean multiInstance) {
+        if (multiInstance) {
+            // индекс не увидит Item, созданные и измененные другими экземплярами
+            throw new IllegalStateException("shareit.item-search.mode=in-memory нельзя использовать "
+                    + "с shareit.multi-instance=true");
+        }
+        this.itemRepository = itemRepository;
+    }
+
+    // до запуска веб-сервера: пустой индекс отвечал бы пустым поиском, а шлюз кэшировал бы такие ответы
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<ItemText> items = itemRepository.findAllProjectedBy();
+        lock.writeLock().lock();
+        try {
+            for (ItemText item : items) {
+                // изменения, пришедшие во время загрузки, новее снимка из базы
+                if (!documents.containsKey(item.getId())) {
+                    put(item.getId(), Document.of(item.getName(), item.getDescription(), item.getAvailable()));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Загружено {} Item в индекс поиска", items.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemSaved(ItemSavedEvent event) {
+        Document document = Document.of(event.name(), event.description(), event.available());
+        lock.writeLock().lock();
+        try {
+            put(event.itemId(), document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        long[] page = findIds(text, pageable);
+        if (page.length == 0) {
+            return List.of();
+        }
+        List<Long> ids = Arrays.stream(page).boxed().toList();
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        List<Item> result = new ArrayList<>(page.length);
+        for (Long id : ids) {
+            Item item = items.get(id);
+            if (item != null) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    public long[] findIds(String text, Pageable pageable) {
+        String query = text.toLowerCase(Locale.ROOT);
+        int offset = (int) pageable.getOffset();
+        int size = pageable.getPageSize();
+        lock.readLock().lock();
+        try {
+            Postings[] lists = postingsFor(query);
+            if (lists.length == 0) {
+                return new long[0];
+            }
+            Postings smallest = lists[0];
+            long[] page = new long[size];
+            int skipped = 0;
+            int found = 0;
+            for (int i = 0; i < smallest.size && found < size; i++) {
+                long id = smallest.ids[i];
+                if (!containsAll(lists, id) || !documents.get(id).matches(query)) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    page[found++] = id;
+                }
+            }
+            return Arrays.copyOf(page, found);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // триграммы отсеивают кандидатов, точное совпадение подстроки проверяется по документу
+    private Postings[] postingsFor(String query) {
+        long[] grams = grams(query);
+        if (grams.length == 0) {
+            return new Postings[]{available};
+        }
+        Postings[] lists = new Postings[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postings.get(grams[i]);
+            if (lists[i] == null) {
+                return new Postings[0];
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        return lists;
+    }
+
+    private static boolean containsAll(Postings[] lists, long id) {
+        for (int i = 1; i < lists.length; i++) {
+            if (!lists[i].contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void put(Long itemId, Document document) {
+        Document previous = documents.put(itemId, document);
+        if (previous != null && previous.available()) {
+            available.remove(itemId);
+            for (long gram : previous.grams()) {
+                Postings list = postings.get(gram);
+                if (list != null && list.remove(itemId) && list.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+        if (document.available()) {
+            available.add(itemId);
+            for (long gram : document.grams()) {
+                postings.computeIfAbsent(gram, key -> new Postings()).add(itemId);
+            }
+        }
+    }
+
+    private static long[] grams(String text) {
+        if (text.length() < GRAM) {
+            return new long[0];
+        }
+        long[] grams = new long[text.length() - GRAM + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    private record Document(String name, String description, boolean available) {
+        static Document of(String name, String description, Boolean available) {
+            return new Document(name == null ? "" : name.toLowerCase(Locale.ROOT),
+                    description == null ? "" : description.toLowerCase(Locale.ROOT),
+                    Boolean.TRUE.equals(available));
+        }
+
+        boolean matches(String query) {
+            return available && (name.contains(query) || description.contains(query));
+        }
+
+        long[] grams() {
+            return LongStream.concat(Arrays.stream(InMemoryItemSearch.grams(name)),
+                            Arrays.stream(InMemoryItemSearch.grams(description)))
+                    .distinct()
+                    .toArray();
+        }
+    }
+
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.dto.BookingDtoForItem;
+import ru.practicum.shareit.item.ItemChangedEvent;
+import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Slf4j
+@Component
+public class ItemDetailCache implements MeterBinder {
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final boolean enabled;
+    private final Cache<Key, Entry> cache;
+    // карточка, собранная до изменения вещи, не должна попасть в кэш после сброса;
+    // счетчики общие для вещей одной полосы, лишний сброс только пропускает запись в кэш
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    // сброс приходит только от изменений на этом экземпляре, поэтому при нескольких экземплярах кэш выключен
+    public ItemDetailCache(@Value("${shareit.item-cache.maximum-size:10000}") long maximumSize,
+                           @Value("${shareit.item-cache.ttl:PT5M}") Duration ttl,
+                           @Value("${shareit.multi-instance:false}") boolean multiInstance) {
+        this.enabled = !multiInstance;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new BookingBoundaryExpiry(ttl))
+                .recordStats()
+                .build();
+    }
+
+    // каждый запрос получает свою копию карточки, чтобы изменения в ней не попали в кэш
+    public ItemWithBookingDto get(Long itemId, Long userId) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = cache.getIfPresent(new Key(itemId, true));
+        if (entry != null && entry.ownerId().equals(userId)) {
+            return copy(entry.item());
+        }
+        entry = cache.getIfPresent(new Key(itemId, false));
+        if (entry != null && !entry.ownerId().equals(userId)) {
+            return copy(entry.item());
+        }
+        return null;
+    }
+
+    // читается до загрузки карточки из базы и передается в put
+    public long generation(Long itemId) {
+        return generations.get(stripe(itemId));
+    }
+
+    public void put(Long ownerId, boolean owner, ItemWithBookingDto item, long generation) {
+        if (!enabled) {
+            return;
+        }
+        Entry entry = new Entry(ownerId, copy(item));
+        cache.asMap().compute(new Key(item.getId(), owner), (key, current) ->
+                generation(key.itemId()) == generation ? entry : current);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        generations.incrementAndGet(stripe(event.itemId()));
+        cache.invalidate(new Key(event.itemId(), true));
+        cache.invalidate(new Key(event.itemId(), false));
+        log.debug("Карточка Item с id {} удалена из кэша", event.itemId());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "itemDetails");
+    }
+
+    private static int stripe(Long itemId) {
+        return Math.floorMod(itemId.hashCode(), GENERATION_STRIPES);
+    }
+
+    private static ItemWithBookingDto copy(ItemWithBookingDto item) {
+        return item.toBuilder()
+                .lastBooking(item.getLastBooking() == null ? null : item.getLastBooking().toBuilder().build())
+                .nextBooking(item.getNextBooking() == null ? null : item.getNextBooking().toBuilder().build())
+                .comments(item.getComments() == null ? null : new ArrayList<>(item.getComments().stream()
+                        .map(comment -> comment.toBuilder().build())
+                        .toList()))
+                .build();
+    }
+
+    private record Key(Long itemId, boolean owner) {
+    }
+
+    private record Entry(Long ownerId, ItemWithBookingDto item) {
+    }
+
+    // когда начинается следующее бронирование, оно становится последним, поэтому запись устаревает
+    private record BookingBoundaryExpiry(Duration ttl) implements Expiry<Key, Entry> {
+        @Override
+        public long expireAfterCreate(Key key, Entry entry, long currentTime) {
+            BookingDtoForItem nextBooking = entry.item().getNextBooking();
+            if (nextBooking == null) {
+                return ttl.toNanos();
+            }
+            Duration untilNext = Duration.between(LocalDateTime.now(), nextBooking.getStart());
+            return Math.max(0, Math.min(ttl.toNanos(), untilNext.toNanos()));
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Key key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -14,9 +14,9 @@ public interface ItemService {
 
     ItemWithBookingDto getItemById(Long itemId, Long userId);
 
-    List<ItemWithBookingDto> getItemsByUserId(Long id);
+    List<ItemWithBookingDto> getItemsByUserId(Long id, Integer from, Integer size);
 
-    List<ItemDto> getItemsByText(String text);
+    List<ItemDto> getItemsByText(String text, Integer from, Integer size);
 
     CommentDto addComment(Long userId, Long itemId, CommentDto commentDto);
 }
@@ -2,18 +2,22 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingMapper;
-import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingDtoForItem;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.AccessDeniedException;
 import ru.practicum.shareit.exception.BookingValidationException;
+import ru.practicum.shareit.exception.InvalidPaginationException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.CommentMapper;
+import ru.practicum.shareit.item.ItemChangedEvent;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemTextChangedEvent;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
@@ -21,6 +25,7 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearch;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
@@ -43,6 +48,9 @@ public class ItemServiceImpl implements ItemService {
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemDetailCache itemDetailCache;
+    private final ItemSearch itemSearch;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public ItemDto createItem(Long userId, ItemDto itemDto) {
@@ -56,6 +64,8 @@ public class ItemServiceImpl implements ItemService {
         }
         item.setOwner(owner);
         item = itemRepository.save(item);
+        eventPublisher.publishEvent(ItemMapper.toItemSavedEvent(item));
+        eventPublisher.publishEvent(new ItemTextChangedEvent(Arrays.asList(item.getName(), item.getDescription())));
         return ItemMapper.toItemDto(item);
     }
 
@@ -68,6 +78,8 @@ public class ItemServiceImpl implements ItemService {
             log.warn("Доступ запрещен: User с id {} не владеет Item с id {}", userId, itemId);
             throw new AccessDeniedException("Доступ запрещен: User c id " + userId + " не владеет Item с id " + itemId);
         }
+        // вещь пропадает из результатов поиска по прежним названию и описанию
+        List<String> texts = new ArrayList<>(Arrays.asList(item.getName(), item.getDescription()));
         if (newItemDto.getName() != null) {
             item.setName(newItemDto.getName());
         }
@@ -78,23 +90,34 @@ public class ItemServiceImpl implements ItemService {
             item.setAvailable(newItemDto.getAvailable());
         }
         item = itemRepository.save(item);
+        eventPublisher.publishEvent(new ItemChangedEvent(itemId));
+        eventPublisher.publishEvent(ItemMapper.toItemSavedEvent(item));
+        texts.add(item.getName());
+        texts.add(item.getDescription());
+        eventPublisher.publishEvent(new ItemTextChangedEvent(texts));
         return ItemMapper.toItemDto(item);
     }
 
     @Override
     public ItemWithBookingDto getItemById(Long itemId, Long userId) {
+        ItemWithBookingDto cached = itemDetailCache.get(itemId, userId);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = itemDetailCache.generation(itemId);
         Item item = itemRepository.findById(itemId).orElseThrow(() -> new NotFoundException(
                 "Item с id " + itemId + " не найден"));
-        List<Booking> bookings = bookingRepository.findByItemAndStatusOrderByStart(item, BookingStatus.APPROVED);
-        List<BookingDtoForItem> bookingDtoList = bookings.stream()
-                .map(BookingMapper::toBookingDtoForItem)
-                .collect(toList());
-
         ItemWithBookingDto itemWithBookingDto = ItemMapper.toItemWithBookingDto(item);
-
-        if (item.getOwner().getId().equals(userId)) {
-            BookingDtoForItem lastBooking = getLastBooking(bookingDtoList);
-            BookingDtoForItem nextBooking = getNextBooking(bookingDtoList);
+        boolean owner = item.getOwner().getId().equals(userId);
+
+        if (owner) {
+            LocalDateTime now = LocalDateTime.now();
+            List<BookingDtoForItem> bookingDtoList = bookingRepository
+                    .findLastAndNextApprovedBookings(List.of(itemId), now).stream()
+                    .map(BookingMapper::toBookingDtoForItem)
+                    .collect(toList());
+            BookingDtoForItem lastBooking = getLastBooking(bookingDtoList, now);
+            BookingDtoForItem nextBooking = getNextBooking(bookingDtoList, now);
             itemWithBookingDto.setLastBooking(lastBooking);
             itemWithBookingDto.setNextBooking(nextBooking);
         }
@@ -102,16 +125,29 @@ public class ItemServiceImpl implements ItemService {
                 .map(CommentMapper::toCommentDto)
                 .toList());
 
+        itemDetailCache.put(item.getOwner().getId(), owner, itemWithBookingDto, generation);
         return itemWithBookingDto;
     }
 
     @Override
-    public List<ItemWithBookingDto> getItemsByUserId(Long id) {
+    public List<ItemWithBookingDto> getItemsByUserId(Long id, Integer from, Integer size) {
         checkUser(id);
-        List<Item> items = itemRepository.findAllByOwnerId(id);
+        List<Item> items;
+        if (size == null) {
+            items = itemRepository.findAllByOwnerId(id);
+        } else {
+            items = itemRepository.findAllByOwnerIdOrderById(id, toPageRequest(from, size));
+        }
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-        Map<Long, List<BookingDtoForItem>> bookings = bookingRepository.findAllByItemInAndStatusOrderByStartAsc(
-                        items, BookingStatus.APPROVED).stream()
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .toList();
+        Map<Long, List<BookingDtoForItem>> bookings = bookingRepository.findLastAndNextApprovedBookings(itemIds, now)
+                .stream()
                 .map(BookingMapper::toBookingDtoForItem)
                 .collect(groupingBy(BookingDtoForItem::getItemId, toList()));
 
@@ -124,19 +160,20 @@ public class ItemServiceImpl implements ItemService {
                 .toList();
 
         for (ItemWithBookingDto item : itemWithBookingDtoList) {
-            item.setLastBooking(getLastBooking(bookings.get(item.getId())));
-            item.setNextBooking(getNextBooking(bookings.get(item.getId())));
+            item.setLastBooking(getLastBooking(bookings.get(item.getId()), now));
+            item.setNextBooking(getNextBooking(bookings.get(item.getId()), now));
             item.setComments(comments.getOrDefault(item.getId(), Collections.emptyList()));
         }
         return itemWithBookingDtoList;
     }
 
     @Override
-    public List<ItemDto> getItemsByText(String text) {
+    public List<ItemDto> getItemsByText(String text, Integer from, Integer size) {
+        PageRequest pageRequest = toPageRequest(from, size);
         if (text == null || text.isEmpty()) {
             return new ArrayList<>();
         }
-        return itemRepository.searchByText(text).stream()
+        return itemSearch.search(text, pageRequest).stream()
                 .map(ItemMapper::toItemDto)
                 .collect(toList());
     }
@@ -154,6 +191,7 @@ public class ItemServiceImpl implements ItemService {
         Comment comment = CommentMapper.toComment(commentDto, item, user);
         comment.setCreated(LocalDateTime.now());
         comment = commentRepository.save(comment);
+        eventPublisher.publishEvent(new ItemChangedEvent(itemId));
         return CommentMapper.toCommentDto(comment);
     }
 
@@ -162,22 +200,29 @@ public class ItemServiceImpl implements ItemService {
                 "пользователь с id " + userId + " не найден"));
     }
 
-    private BookingDtoForItem getLastBooking(List<BookingDtoForItem> bookings) {
+    private PageRequest toPageRequest(Integer from, Integer size) {
+        if (from < 0 || size <= 0) {
+            throw new InvalidPaginationException("Некорректные параметры: from = " + from + ", size = " + size);
+        }
+        return PageRequest.of(from / size, size);
+    }
+
+    private BookingDtoForItem getLastBooking(List<BookingDtoForItem> bookings, LocalDateTime now) {
         if (bookings == null || bookings.isEmpty()) {
             return null;
         }
         return bookings.stream()
-                .filter(BookingDtoForItem -> BookingDtoForItem.getStart().isBefore(LocalDateTime.now()))
+                .filter(BookingDtoForItem -> BookingDtoForItem.getStart().isBefore(now))
                 .max(Comparator.comparing(BookingDtoForItem::getStart))
                 .orElse(null);
     }
 
-    private BookingDtoForItem getNextBooking(List<BookingDtoForItem> bookings) {
+    private BookingDtoForItem getNextBooking(List<BookingDtoForItem> bookings, LocalDateTime now) {
         if (bookings == null || bookings.isEmpty()) {
             return null;
         }
         return bookings.stream()
-                .filter(BookingDtoForItem -> BookingDtoForItem.getStart().isAfter(LocalDateTime.now()))
+                .filter(BookingDtoForItem -> BookingDtoForItem.getStart().isAfter(now))
                 .findFirst()
                 .orElse(null);
     }
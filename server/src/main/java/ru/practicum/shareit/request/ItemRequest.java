@@ -23,10 +23,14 @@ public class ItemRequest {
     @Column(name = "description")
     private String description;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "requester")
     private User requester;
 
     @Column(name = "created")
     private LocalDateTime created;
+
+    @Version
+    @Column(name = "version")
+    private Long version;
 }
@@ -2,7 +2,9 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.EntityTag;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
@@ -23,23 +25,32 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public List<ItemRequestDto> getRequestsByUserId(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public ResponseEntity<List<ItemRequestDto>> getRequestsByUserId(@RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("Запрос на получение списка запросов от пользователя с id {}", userId);
-        return itemRequestService.getRequestsByUserId(userId);
+        return toResponse(itemRequestService.getRequestsByUserId(userId));
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> getRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                            @RequestParam(defaultValue = "0") Integer from,
-                                            @RequestParam(defaultValue = "10") Integer size) {
+    public ResponseEntity<List<ItemRequestDto>> getRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                            @RequestParam(defaultValue = "0") Integer from,
+                                                            @RequestParam(defaultValue = "10") Integer size) {
         log.info("Запрос на получение списка запросов, созданных другими пользователями");
-        return itemRequestService.getRequests(userId, from, size);
+        return toResponse(itemRequestService.getRequests(userId, from, size));
     }
 
     @GetMapping("/{requestId}")
-    public ItemRequestDto getRequestById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                         @PathVariable Long requestId) {
+    public ResponseEntity<ItemRequestDto> getRequestById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                         @PathVariable Long requestId) {
         log.info("Запрос на получение запроса с id {}", requestId);
-        return itemRequestService.getRequestById(userId, requestId);
+        ItemRequestDto request = itemRequestService.getRequestById(userId, requestId);
+        return ResponseEntity.ok()
+                .eTag(ItemRequestMapper.appendTag(new EntityTag(), request).toString())
+                .body(request);
+    }
+
+    private ResponseEntity<List<ItemRequestDto>> toResponse(List<ItemRequestDto> requests) {
+        EntityTag tag = new EntityTag();
+        requests.forEach(request -> ItemRequestMapper.appendTag(tag, request));
+        return ResponseEntity.ok().eTag(tag.toString()).body(requests);
     }
 }
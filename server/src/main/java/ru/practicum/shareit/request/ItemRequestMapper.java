@@ -1,5 +1,8 @@
 package ru.practicum.shareit.request;
 
+import ru.practicum.shareit.EntityTag;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.user.User;
 
@@ -21,6 +24,18 @@ public class ItemRequestMapper {
                 .id(itemRequest.getId())
                 .description(itemRequest.getDescription())
                 .created(itemRequest.getCreated())
+                .version(itemRequest.getVersion())
                 .build();
     }
+
+    public static EntityTag appendTag(EntityTag tag, ItemRequestDto itemRequestDto) {
+        tag.add(itemRequestDto.getId()).add(itemRequestDto.getVersion());
+        if (itemRequestDto.getItems() != null) {
+            tag.add((long) itemRequestDto.getItems().size());
+            for (ItemDto item : itemRequestDto.getItems()) {
+                ItemMapper.appendTag(tag, item);
+            }
+        }
+        return tag;
+    }
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -21,4 +22,7 @@ public class ItemRequestDto {
     private LocalDateTime created;
     private List<ItemDto> items = new ArrayList<>();
 
+    @JsonIgnore
+    private Long version;
+
 }
@@ -1,10 +1,3 @@
-DROP TABLE IF EXISTS bookings;
-DROP TABLE IF EXISTS comments;
-DROP TABLE IF EXISTS items;
-DROP TABLE IF EXISTS requests;
-DROP TABLE IF EXISTS users;
-
-
 CREATE TABLE IF NOT EXISTS users (
     user_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     name  VARCHAR(255) NOT NULL,
@@ -42,4 +35,4 @@ CREATE TABLE IF NOT EXISTS comments (
     item_id BIGINT REFERENCES items (item_id) ON DELETE CASCADE NOT NULL,
     author_id BIGINT REFERENCES users (user_id) ON DELETE CASCADE NOT NULL,
     created TIMESTAMP WITHOUT TIME ZONE NOT NULL
-);
\ No newline at end of file
+);
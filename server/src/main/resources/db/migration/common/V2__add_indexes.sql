@@ -0,0 +1,11 @@
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start ON bookings (booker_id, start_time DESC, booking_id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_start ON bookings (item_id, status, start_time);
+CREATE INDEX IF NOT EXISTS ix_bookings_status_end ON bookings (status, end_time);
+
+CREATE INDEX IF NOT EXISTS ix_items_owner ON items (owner);
+CREATE INDEX IF NOT EXISTS ix_items_request ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS ix_comments_item ON comments (item_id);
+
+CREATE INDEX IF NOT EXISTS ix_requests_requester_created ON requests (requester, created);
+CREATE INDEX IF NOT EXISTS ix_requests_created ON requests (created DESC);
@@ -0,0 +1,204 @@
+package ru.practicum.shareit;
+
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.booking.BookingRole;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.dto.BookingSearchParams;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingSpecifications;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Планы запросов, которые на самом деле строят репозитории: SQL и параметры перехватываются у DataSource,
+ * а EXPLAIN выполняется на заполненной базе без подсказок планировщику.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import(QueryPlanTest.CapturingDataSourceConfig.class)
+class QueryPlanTest {
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (bookings|items|comments|requests)\\b");
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 12, 12, 0);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.1");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.execute("INSERT INTO users (name, email) " +
+                "SELECT 'user' || g, 'user' || g || '@mail.ru' FROM generate_series(1, 2000) g");
+        jdbcTemplate.execute("INSERT INTO requests (description, requester, created) " +
+                "SELECT 'request ' || g, 1 + g % 2000, TIMESTAMP '2025-01-01' + g * INTERVAL '1 minute' " +
+                "FROM generate_series(1, 20000) g");
+        jdbcTemplate.execute("INSERT INTO items (name, description, available, owner, request_id) " +
+                "SELECT 'item ' || g, 'description ' || g, true, 1 + g % 2000, " +
+                "CASE WHEN g % 3 = 0 THEN 1 + g % 20000 END FROM generate_series(1, 200000) g");
+        // история бронирований до NOW и несколько дней будущих
+        jdbcTemplate.execute("INSERT INTO bookings (start_time, end_time, item_id, booker_id, status) " +
+                "SELECT TIMESTAMP '2025-03-15 12:00' - g * INTERVAL '7 minutes', " +
+                "TIMESTAMP '2025-03-16 12:00' - g * INTERVAL '7 minutes', 1 + g % 20000, 1 + (g * 7) % 2000, " +
+                "(ARRAY['WAITING', 'APPROVED', 'REJECTED', 'CANCELED'])[1 + g % 4] FROM generate_series(1, 200000) g");
+        jdbcTemplate.execute("INSERT INTO comments (text, item_id, author_id, created) " +
+                "SELECT 'comment ' || g, 1 + g % 20000, 1 + g % 2000, TIMESTAMP '2025-01-01' " +
+                "FROM generate_series(1, 40000) g");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void repositoryQueriesDoNotScanBigTablesTest() {
+        List<Long> itemIds = List.of(10L, 11L, 12L);
+        List<Item> items = itemRepository.findAllById(itemIds);
+        List<BookingStatus> active = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+        Map<String, Runnable> calls = new LinkedHashMap<>();
+
+        for (BookingRole role : BookingRole.values()) {
+            for (State state : State.values()) {
+                calls.put(role + " " + state, () -> bookingRepository.search(
+                        BookingSpecifications.search(role, 10L, state, NOW, null), ScrollPosition.offset(), 11));
+            }
+            calls.put(role + " after cursor", () -> bookingRepository.search(
+                    BookingSpecifications.search(role, 10L, State.ALL, NOW, null),
+                    ScrollPosition.forward(Map.of("start", NOW, "id", 100000L)), 11));
+            calls.put(role + " item and range", () -> bookingRepository.search(
+                    BookingSpecifications.search(role, 10L, State.ALL, NOW, BookingSearchParams.builder()
+                            .itemId(10L)
+                            .rangeStart(NOW.minusDays(30))
+                            .rangeEnd(NOW)
+                            .statuses(active)
+                            .build()),
+                    ScrollPosition.offset(), 11));
+        }
+        calls.put("last and next bookings", () -> bookingRepository.findLastAndNextApprovedBookings(itemIds, NOW));
+        calls.put("active bookings", () -> bookingRepository.findByStatusInAndEndAfter(active, NOW));
+        calls.put("overlapping bookings", () -> bookingRepository.existsOverlapping(10L, NOW, NOW.plusDays(1), active));
+        calls.put("booking for comment", () -> bookingRepository.findBookingForComment(10L, 10L, NOW));
+        calls.put("substring search", () -> itemRepository.searchByText("m 1234", PageRequest.of(0, 10)));
+        calls.put("full-text search", () -> itemRepository.searchByFullText("1234:*", PageRequest.of(0, 10)));
+        calls.put("items of owner", () -> itemRepository.findAllByOwnerId(10L));
+        calls.put("items of owner page", () -> itemRepository.findAllByOwnerIdOrderById(10L, PageRequest.of(1, 10)));
+        calls.put("items of request", () -> itemRepository.findAllByItemRequestId(10L));
+        calls.put("items of requests", () -> itemRepository.findAllByItemRequestIdIn(itemIds));
+        calls.put("item for update", () -> itemRepository.findByIdForUpdate(10L));
+        calls.put("comments of item", () -> commentRepository.findByItemId(10L));
+        calls.put("comments of items", () -> commentRepository.findByItemIn(items));
+        calls.put("own requests", () -> itemRequestRepository.findAllByRequesterIdOrderByCreatedAsc(10L));
+        calls.put("other requests", () -> itemRequestRepository.findAllByRequesterIdNotOrderByCreatedDesc(10L,
+                PageRequest.of(2, 10)));
+
+        calls.forEach((name, call) -> {
+            List<CapturedQuery> queries = CapturingDataSourceConfig.capture(call);
+            assertFalse(queries.isEmpty(), name);
+            for (CapturedQuery query : queries) {
+                if (query.sql().startsWith("select count(") && name.equals("other requests")) {
+                    // общее число запросов для Page с requester <> ? читает почти всю таблицу при любом плане
+                    continue;
+                }
+                String plan = jdbcTemplate.queryForList("EXPLAIN " + query.sql(), String.class, query.args())
+                        .stream()
+                        .collect(Collectors.joining("\n"));
+                assertFalse(SEQ_SCAN.matcher(plan).find(), () -> name + "\n" + query.sql() + "\n" + plan);
+            }
+        });
+    }
+
+    record CapturedQuery(String sql, Object[] args) {
+    }
+
+    @TestConfiguration
+    static class CapturingDataSourceConfig {
+        private static final ThreadLocal<List<CapturedQuery>> CAPTURED = new ThreadLocal<>();
+
+        static List<CapturedQuery> capture(Runnable call) {
+            List<CapturedQuery> queries = new ArrayList<>();
+            CAPTURED.set(queries);
+            try {
+                call.run();
+            } finally {
+                CAPTURED.remove();
+            }
+            return queries;
+        }
+
+        @Bean
+        static BeanPostProcessor capturingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource)) {
+                        return bean;
+                    }
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .afterQuery((execution, queries) -> {
+                                List<CapturedQuery> captured = CAPTURED.get();
+                                if (captured != null) {
+                                    queries.forEach(query -> captured.add(toCapturedQuery(query)));
+                                }
+                            })
+                            .build();
+                }
+            };
+        }
+
+        private static CapturedQuery toCapturedQuery(QueryInfo query) {
+            List<ParameterSetOperation> operations = query.getParametersList().isEmpty()
+                    ? List.of()
+                    : query.getParametersList().getFirst();
+            Object[] args = new Object[operations.size()];
+            for (ParameterSetOperation operation : operations) {
+                Object[] operationArgs = operation.getArgs();
+                boolean isNull = ParameterSetOperation.isSetNullParameterOperation(operation);
+                args[(Integer) operationArgs[0] - 1] = isNull ? null : operationArgs[1];
+            }
+            return new CapturedQuery(query.getQuery(), args);
+        }
+    }
+}
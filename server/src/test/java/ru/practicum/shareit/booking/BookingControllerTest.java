@@ -1,15 +1,21 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.SmileConfig;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSliceDto;
 import ru.practicum.shareit.booking.dto.RequestBookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -19,6 +25,7 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
@@ -26,9 +33,11 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
+@Import(SmileConfig.class)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class BookingControllerTest {
 
@@ -117,8 +126,8 @@ public class BookingControllerTest {
 
     @Test
     void getAllBookingsByUserIdTest() throws Exception {
-        when(bookingService.getAllBookingsByUserId(anyLong(), anyString(), anyInt(), anyInt()))
-                .thenReturn(List.of(bookingDto));
+        when(bookingService.getAllBookingsByUserId(anyLong(), anyString(), anyInt(), anyInt(), isNull(), any()))
+                .thenReturn(new BookingSliceDto(List.of(bookingDto), "cursor"));
 
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", 1L)
@@ -126,16 +135,17 @@ public class BookingControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "cursor"))
                 .andExpect(content().json(mapper.writeValueAsString(List.of(bookingDto))));
 
         verify(bookingService, times(1))
-                .getAllBookingsByUserId(anyLong(), anyString(), anyInt(), anyInt());
+                .getAllBookingsByUserId(anyLong(), anyString(), anyInt(), anyInt(), isNull(), any());
     }
 
     @Test
     void getBookingsByOwnerIdTest() throws Exception {
-        when(bookingService.getBookingsByOwnerId(anyLong(), anyString(), anyInt(), anyInt()))
-                .thenReturn(List.of(bookingDto));
+        when(bookingService.getBookingsByOwnerId(anyLong(), anyString(), anyInt(), anyInt(), isNull(), any()))
+                .thenReturn(new BookingSliceDto(List.of(bookingDto), null));
 
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", 1L)
@@ -143,10 +153,11 @@ public class BookingControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(content().json(mapper.writeValueAsString(List.of(bookingDto))));
 
         verify(bookingService, times(1))
-                .getBookingsByOwnerId(anyLong(), anyString(), anyInt(), anyInt());
+                .getBookingsByOwnerId(anyLong(), anyString(), anyInt(), anyInt(), isNull(), any());
     }
 
     @Test
@@ -165,4 +176,51 @@ public class BookingControllerTest {
         verify(bookingService, times(1))
                 .getBookingById(anyLong(), anyLong());
     }
+
+    @Test
+    void getBookingByIdAsSmileTest() throws Exception {
+        when(bookingService.getBookingById(anyLong(), anyLong()))
+                .thenReturn(bookingDto);
+        MediaType smile = MediaType.parseMediaType("application/x-jackson-smile");
+
+        byte[] body = mvc.perform(get("/bookings/1")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(smile, MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(smile))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode booking = new ObjectMapper(new SmileFactory()).readTree(body);
+        assertEquals(mapper.readTree(mapper.writeValueAsString(bookingDto)), booking);
+
+        mvc.perform(get("/bookings/1")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void getAllBookingsByUserIdWithMatchingETagTest() throws Exception {
+        when(bookingService.getAllBookingsByUserId(anyLong(), anyString(), anyInt(), anyInt(), isNull(), any()))
+                .thenReturn(new BookingSliceDto(List.of(bookingDto), "cursor"));
+
+        String eTag = mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        when(bookingService.getAllBookingsByUserId(anyLong(), anyString(), anyInt(), anyInt(), isNull(), any()))
+                .thenReturn(new BookingSliceDto(List.of(bookingDto), null));
+
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
 }
@@ -0,0 +1,200 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingIntervalIndexTest {
+    private static final int THREADS = 16;
+
+    private final AtomicLong ids = new AtomicLong();
+
+    private BookingIntervalIndex index;
+    private Item item;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void init() {
+        index = new BookingIntervalIndex(false);
+        item = Item.builder()
+                .id(1L)
+                .name("ItemName")
+                .description("ItemDesc")
+                .available(true)
+                .build();
+        base = LocalDateTime.now().plusDays(1).withNano(0);
+    }
+
+    @Test
+    void tryReserveWithoutOverlapTest() {
+        assertTrue(index.tryReserve(booking(0, 2)));
+        assertTrue(index.tryReserve(booking(4, 6)));
+        assertTrue(index.tryReserve(booking(2, 4)));
+    }
+
+    @Test
+    void tryReserveWithOverlapTest() {
+        assertTrue(index.tryReserve(booking(2, 5)));
+
+        assertFalse(index.tryReserve(booking(1, 3)));
+        assertFalse(index.tryReserve(booking(4, 7)));
+        assertFalse(index.tryReserve(booking(3, 4)));
+        assertFalse(index.tryReserve(booking(0, 8)));
+        assertFalse(index.isFree(item.getId(), base.plusHours(2), base.plusHours(5)));
+    }
+
+    @Test
+    void tryReserveForDifferentItemsTest() {
+        Item other = Item.builder().id(2L).build();
+        Booking otherBooking = booking(0, 5);
+        otherBooking.setItem(other);
+
+        assertTrue(index.tryReserve(booking(0, 5)));
+        assertTrue(index.tryReserve(otherBooking));
+    }
+
+    @Test
+    void releaseTest() {
+        Booking booking = booking(0, 5);
+        index.tryReserve(booking);
+
+        index.release(booking);
+
+        assertTrue(index.isFree(item.getId(), base, base.plusHours(5)));
+        assertTrue(index.tryReserve(booking(1, 3)));
+    }
+
+    @Test
+    void releaseFromMergedBlockTest() {
+        Booking first = booking(0, 4);
+        Booking second = booking(3, 8);
+        index.load(List.of(first, second));
+
+        index.release(first);
+
+        assertTrue(index.isFree(item.getId(), base, base.plusHours(3)));
+        assertFalse(index.isFree(item.getId(), base.plusHours(3), base.plusHours(4)));
+        assertFalse(index.tryReserve(booking(7, 9)));
+    }
+
+    @Test
+    void tryReserveAfterPastBookingsTest() {
+        Booking past = booking(0, 1);
+        past.setStart(LocalDateTime.now().minusDays(2));
+        past.setEnd(LocalDateTime.now().minusDays(1));
+        index.load(List.of(past));
+
+        assertTrue(index.tryReserve(booking(0, 1)));
+    }
+
+    @Test
+    void concurrentTryReserveSameIntervalTest() throws InterruptedException {
+        AtomicInteger reserved = new AtomicInteger();
+
+        runConcurrently(THREADS * 8, () -> {
+            if (index.tryReserve(booking(0, 3))) {
+                reserved.incrementAndGet();
+            }
+        });
+
+        assertEquals(1, reserved.get());
+    }
+
+    @Test
+    void concurrentTryReserveRandomIntervalsTest() throws InterruptedException {
+        List<Booking> reserved = Collections.synchronizedList(new ArrayList<>());
+
+        runConcurrently(THREADS * 200, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int start = random.nextInt(500);
+            Booking booking = booking(start, start + 1 + random.nextInt(12));
+            if (index.tryReserve(booking)) {
+                reserved.add(booking);
+                if (random.nextInt(4) == 0) {
+                    reserved.remove(booking);
+                    index.release(booking);
+                }
+            }
+        });
+
+        List<Booking> bookings = new ArrayList<>(reserved);
+        bookings.sort((a, b) -> a.getStart().compareTo(b.getStart()));
+        for (int i = 1; i < bookings.size(); i++) {
+            assertFalse(bookings.get(i).getStart().isBefore(bookings.get(i - 1).getEnd()));
+        }
+        for (Booking booking : bookings) {
+            assertFalse(index.isFree(item.getId(), booking.getStart(), booking.getEnd()));
+        }
+    }
+
+    @Test
+    void releaseReservedBeforeSaveTest() {
+        Booking unsaved = booking(2, 5);
+        unsaved.setId(null);
+        assertTrue(index.tryReserve(unsaved));
+        unsaved.setId(ids.incrementAndGet());
+
+        index.release(unsaved);
+
+        assertTrue(index.isFree(item.getId(), base.plusHours(2), base.plusHours(5)));
+    }
+
+    @Test
+    void disabledForMultipleInstancesTest() {
+        BookingIntervalIndex disabled = new BookingIntervalIndex(true);
+        disabled.load(List.of(booking(2, 5)));
+
+        assertFalse(disabled.isEnabled());
+        assertTrue(disabled.isFree(item.getId(), base.plusHours(2), base.plusHours(5)));
+        assertTrue(disabled.tryReserve(booking(2, 5)));
+        assertTrue(disabled.tryReserve(booking(2, 5)));
+    }
+
+    private void runConcurrently(int tasks, Runnable task) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(tasks);
+        for (int i = 0; i < tasks; i++) {
+            executor.submit(() -> {
+                try {
+                    ready.await();
+                    task.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        ready.countDown();
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+
+    private Booking booking(int startHour, int endHour) {
+        return Booking.builder()
+                .id(ids.incrementAndGet())
+                .start(base.plusHours(startHour))
+                .end(base.plusHours(endHour))
+                .item(item)
+                .status(BookingStatus.WAITING)
+                .build();
+    }
+}
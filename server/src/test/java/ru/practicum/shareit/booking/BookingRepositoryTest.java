@@ -4,9 +4,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingSearchParams;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingSpecifications;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.User;
@@ -16,6 +19,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 class BookingRepositoryTest {
@@ -63,165 +68,265 @@ class BookingRepositoryTest {
     }
 
     @Test
-    void findByBookerIdTest() {
+    void searchByBookerIdTest() {
         userRepository.save(owner);
         userRepository.save(user);
         itemRepository.save(item);
         bookingRepository.save(booking);
 
-        Page<Booking> bookings = bookingRepository.findByBookerIdOrderByStartDesc(
-                user.getId(), Pageable.ofSize(10));
+        Window<Booking> bookings = bookingRepository.search(
+                BookingSpecifications.search(BookingRole.BOOKER, user.getId(), State.ALL, LocalDateTime.now(), null),
+                ScrollPosition.offset(), 10);
 
         assertEquals(1, bookings.getContent().size());
     }
 
     @Test
-    void findByBookerIdAndStatusTest() {
+    void searchByBookerIdAndStatusTest() {
         userRepository.save(owner);
         userRepository.save(user);
         itemRepository.save(item);
         bookingRepository.save(booking);
 
-        Page<Booking> bookings = bookingRepository.findByBookerIdAndStatus(
-                user.getId(), BookingStatus.APPROVED, Pageable.ofSize(10));
+        BookingSearchParams params = BookingSearchParams.builder()
+                .statuses(List.of(BookingStatus.APPROVED))
+                .build();
+
+        Window<Booking> bookings = bookingRepository.search(
+                BookingSpecifications.search(BookingRole.BOOKER, user.getId(), State.ALL, LocalDateTime.now(), params),
+                ScrollPosition.offset(), 10);
 
         assertEquals(1, bookings.getContent().size());
     }
 
     @Test
-    void findByBookerIdAndStartBeforeAndEndAfterTest() {
+    void searchByBookerIdAndStartBeforeAndEndAfterTest() {
         userRepository.save(owner);
         userRepository.save(user);
         itemRepository.save(item);
         bookingRepository.save(booking);
         LocalDateTime now = LocalDateTime.of(2025, 3, 12, 5, 0);
 
-        Page<Booking> bookings = bookingRepository.findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                user.getId(), now, now, Pageable.ofSize(10));
+        Window<Booking> bookings = bookingRepository.search(
+                BookingSpecifications.search(BookingRole.BOOKER, user.getId(), State.CURRENT, now, null),
+                ScrollPosition.offset(), 10);
 
         assertEquals(1, bookings.getContent().size());
     }
 
     @Test
-    void findByBookerIdAndEndBeforeTest() {
+    void searchByBookerIdAndEndBeforeTest() {
         userRepository.save(owner);
         userRepository.save(user);
         itemRepository.save(item);
         bookingRepository.save(booking);
         LocalDateTime now = LocalDateTime.of(2025, 3, 16, 5, 0);
 
-        Page<Booking> bookings = bookingRepository.findByBookerIdAndEndBeforeOrderByStartDesc(
-                user.getId(), now, Pageable.ofSize(10));
+        Window<Booking> bookings = bookingRepository.search(
+                BookingSpecifications.search(BookingRole.BOOKER, user.getId(), State.PAST, now, null),
+                ScrollPosition.offset(), 10);
 
         assertEquals(1, bookings.getContent().size());
     }
 
     @Test
-    void findByBookerIdAndStartAfterTest() {
+    void searchByBookerIdAndStartAfterTest() {
         userRepository.save(owner);
         userRepository.save(user);
         itemRepository.save(item);
         bookingRepository.save(booking);
         LocalDateTime now = LocalDateTime.of(2025, 3, 8, 5, 0);
 
-        Page<Booking> bookings = bookingRepository.findByBookerIdAndStartAfterOrderByStartDesc(
-                user.getId(), now, Pageable.ofSize(10));
+        Window<Booking> bookings = bookingRepository.search(
+                BookingSpecifications.search(BookingRole.BOOKER, user.getId(), State.FUTURE, now, null),
+                ScrollPosition.offset(), 10);
 
         assertEquals(1, bookings.getContent().size());
     }
 
     @Test
-    void findByItemOwnerIdTest() {
+    void searchByItemOwnerIdTest() {
         userRepository.save(owner);
         userRepository.save(user);
         itemRepository.save(item);
         bookingRepository.save(booking);
 
-        List<Booking> bookings = bookingRepository.findByItemOwnerIdOrderByStartDesc(
-                owner.getId(), Pageable.ofSize(10));
+        Window<Booking> bookings = bookingRepository.search(
+                BookingSpecifications.search(BookingRole.OWNER, owner.getId(), State.ALL, LocalDateTime.now(), null),
+                ScrollPosition.offset(), 10);
 
         assertEquals(1, bookings.size());
     }
 
     @Test
-    void findByItemOwnerIdAndStatusTest() {
+    void searchByItemOwnerIdAndStatusTest() {
         userRepository.save(owner);
         userRepository.save(user);
         itemRepository.save(item);
         bookingRepository.save(booking);
 
-        List<Booking> bookings = bookingRepository.findByItemOwnerIdAndStatus(
-                owner.getId(), BookingStatus.APPROVED, Pageable.ofSize(10));
+        BookingSearchParams params = BookingSearchParams.builder()
+                .statuses(List.of(BookingStatus.APPROVED))
+                .build();
+
+        Window<Booking> bookings = bookingRepository.search(
+                BookingSpecifications.search(BookingRole.OWNER, owner.getId(), State.ALL, LocalDateTime.now(), params),
+                ScrollPosition.offset(), 10);
 
         assertEquals(1, bookings.size());
     }
 
     @Test
-    void findByItemOwnerIdAndStartBeforeAndEndAfterTest() {
+    void searchByItemOwnerIdAndStartBeforeAndEndAfterTest() {
         userRepository.save(owner);
         userRepository.save(user);
         itemRepository.save(item);
         bookingRepository.save(booking);
         LocalDateTime now = LocalDateTime.of(2025, 3, 12, 5, 0);
 
-        List<Booking> bookings = bookingRepository.findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                owner.getId(), now, now, Pageable.ofSize(10));
+        Window<Booking> bookings = bookingRepository.search(
+                BookingSpecifications.search(BookingRole.OWNER, owner.getId(), State.CURRENT, now, null),
+                ScrollPosition.offset(), 10);
 
         assertEquals(1, bookings.size());
     }
 
     @Test
-    void findByItemOwnerIdAndEndBeforeTest() {
+    void searchByItemOwnerIdAndEndBeforeTest() {
         userRepository.save(owner);
         userRepository.save(user);
         itemRepository.save(item);
         bookingRepository.save(booking);
         LocalDateTime now = LocalDateTime.of(2025, 3, 16, 5, 0);
 
-        List<Booking> bookings = bookingRepository.findByItemOwnerIdAndEndBeforeOrderByStartDesc(
-                owner.getId(), now, Pageable.ofSize(10));
+        Window<Booking> bookings = bookingRepository.search(
+                BookingSpecifications.search(BookingRole.OWNER, owner.getId(), State.PAST, now, null),
+                ScrollPosition.offset(), 10);
 
         assertEquals(1, bookings.size());
     }
 
     @Test
-    void findByItemOwnerIdAndStartAfterTest() {
+    void searchByItemOwnerIdAndStartAfterTest() {
         userRepository.save(owner);
         userRepository.save(user);
         itemRepository.save(item);
         bookingRepository.save(booking);
         LocalDateTime now = LocalDateTime.of(2025, 3, 8, 5, 0);
 
-        List<Booking> bookings = bookingRepository.findByItemOwnerIdAndStartAfterOrderByStartDesc(
-                owner.getId(), now, Pageable.ofSize(10));
+        Window<Booking> bookings = bookingRepository.search(
+                BookingSpecifications.search(BookingRole.OWNER, owner.getId(), State.FUTURE, now, null),
+                ScrollPosition.offset(), 10);
 
         assertEquals(1, bookings.size());
     }
 
     @Test
-    void findByItemAndStatusOrderByStartTest() {
+    void searchByItemOwnerIdWithFiltersTest() {
         userRepository.save(owner);
         userRepository.save(user);
         itemRepository.save(item);
         bookingRepository.save(booking);
+        Item otherItem = itemRepository.save(Item.builder()
+                .name("OtherName")
+                .description("OtherDesc")
+                .available(true)
+                .owner(owner)
+                .build());
+        bookingRepository.save(Booking.builder()
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .item(otherItem)
+                .booker(user)
+                .status(BookingStatus.APPROVED)
+                .build());
+        BookingSearchParams params = BookingSearchParams.builder()
+                .itemId(item.getId())
+                .rangeStart(LocalDateTime.of(2025, 3, 14, 0, 0))
+                .rangeEnd(LocalDateTime.of(2025, 3, 20, 0, 0))
+                .statuses(List.of(BookingStatus.APPROVED, BookingStatus.WAITING))
+                .build();
 
-        List<Booking> bookings = bookingRepository.findByItemAndStatusOrderByStart(
-                item, BookingStatus.APPROVED);
+        Window<Booking> bookings = bookingRepository.search(
+                BookingSpecifications.search(BookingRole.OWNER, owner.getId(), State.ALL, LocalDateTime.now(), params),
+                ScrollPosition.offset(), 10);
 
-        assertEquals(1, bookings.size());
+        assertEquals(List.of(booking.getId()), bookings.map(Booking::getId).getContent());
+
+        params.setRangeStart(LocalDateTime.of(2025, 3, 15, 5, 0));
+        bookings = bookingRepository.search(
+                BookingSpecifications.search(BookingRole.OWNER, owner.getId(), State.ALL, LocalDateTime.now(), params),
+                ScrollPosition.offset(), 10);
+
+        assertTrue(bookings.isEmpty());
     }
 
     @Test
-    void findAllByItemInAndStatusOrderByStartAscTest() {
+    void searchByBookerIdWithKeysetScrollTest() {
         userRepository.save(owner);
         userRepository.save(user);
         itemRepository.save(item);
         bookingRepository.save(booking);
+        Booking sameStart = bookingRepository.save(Booking.builder()
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .item(item)
+                .booker(user)
+                .status(BookingStatus.WAITING)
+                .build());
+        Booking earlier = bookingRepository.save(Booking.builder()
+                .start(booking.getStart().minusDays(5))
+                .end(booking.getEnd().minusDays(5))
+                .item(item)
+                .booker(user)
+                .status(BookingStatus.WAITING)
+                .build());
 
-        List<Booking> bookings = bookingRepository.findAllByItemInAndStatusOrderByStartAsc(
-                List.of(item), BookingStatus.APPROVED);
+        Specification<Booking> bookerSpecification = BookingSpecifications.search(BookingRole.BOOKER, user.getId(),
+                State.ALL, LocalDateTime.now(), null);
 
-        assertEquals(1, bookings.size());
+        Window<Booking> first = bookingRepository.search(bookerSpecification, ScrollPosition.offset(), 2);
+
+        assertEquals(List.of(sameStart.getId(), booking.getId()), first.map(Booking::getId).getContent());
+        assertTrue(first.hasNext());
+
+        Window<Booking> second = bookingRepository.search(bookerSpecification,
+                BookingCursor.decode(BookingCursor.encode(first.getContent().getLast())), 2);
+
+        assertEquals(List.of(earlier.getId()), second.map(Booking::getId).getContent());
+        assertFalse(second.hasNext());
+
+        Window<Booking> offset = bookingRepository.search(bookerSpecification, ScrollPosition.offset(1), 2);
+
+        assertEquals(List.of(earlier.getId()), offset.map(Booking::getId).getContent());
+    }
+
+    @Test
+    void findLastAndNextApprovedBookingsTest() {
+        userRepository.save(owner);
+        userRepository.save(user);
+        itemRepository.save(item);
+        Item emptyItem = itemRepository.save(Item.builder()
+                .name("EmptyName")
+                .description("EmptyDesc")
+                .available(true)
+                .owner(owner)
+                .build());
+        LocalDateTime now = LocalDateTime.of(2025, 3, 20, 5, 0);
+        Booking older = saveBooking(now.minusDays(20), BookingStatus.APPROVED);
+        Booking last = saveBooking(now.minusDays(5), BookingStatus.APPROVED);
+        saveBooking(now.minusDays(1), BookingStatus.REJECTED);
+        saveBooking(now.plusDays(1), BookingStatus.WAITING);
+        Booking next = saveBooking(now.plusDays(2), BookingStatus.APPROVED);
+        Booking later = saveBooking(now.plusDays(10), BookingStatus.APPROVED);
+
+        List<Booking> bookings = bookingRepository.findLastAndNextApprovedBookings(
+                List.of(item.getId(), emptyItem.getId()), now);
+
+        assertEquals(2, bookings.size());
+        assertTrue(bookings.stream().anyMatch(b -> b.getId().equals(last.getId())));
+        assertTrue(bookings.stream().anyMatch(b -> b.getId().equals(next.getId())));
+        assertFalse(bookings.stream().anyMatch(b -> b.getId().equals(older.getId()) || b.getId().equals(later.getId())));
     }
 
     @Test
@@ -236,4 +341,50 @@ class BookingRepositoryTest {
 
         assertEquals(1, bookings.size());
     }
+
+    @Test
+    void updateStatusTest() {
+        userRepository.save(owner);
+        userRepository.save(user);
+        itemRepository.save(item);
+        booking.setStatus(BookingStatus.WAITING);
+        Long bookingId = bookingRepository.save(booking).getId();
+        Long version = booking.getVersion();
+
+        assertEquals(0, bookingRepository.updateStatus(bookingId, user.getId(),
+                BookingStatus.WAITING, BookingStatus.APPROVED));
+        assertEquals(1, bookingRepository.updateStatus(bookingId, owner.getId(),
+                BookingStatus.WAITING, BookingStatus.APPROVED));
+        assertEquals(0, bookingRepository.updateStatus(bookingId, owner.getId(),
+                BookingStatus.WAITING, BookingStatus.REJECTED));
+
+        Booking updated = bookingRepository.findById(bookingId).orElseThrow();
+        assertEquals(BookingStatus.APPROVED, updated.getStatus());
+        assertEquals(version + 1, updated.getVersion());
+    }
+
+    @Test
+    void existsOverlappingTest() {
+        userRepository.save(owner);
+        userRepository.save(user);
+        itemRepository.save(item);
+        LocalDateTime start = LocalDateTime.of(2025, 3, 10, 5, 0);
+        saveBooking(start, BookingStatus.WAITING);
+        saveBooking(start.plusDays(3), BookingStatus.REJECTED);
+        List<BookingStatus> active = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+        assertTrue(bookingRepository.existsOverlapping(item.getId(), start.plusHours(12), start.plusDays(2), active));
+        assertFalse(bookingRepository.existsOverlapping(item.getId(), start.plusDays(1), start.plusDays(2), active));
+        assertFalse(bookingRepository.existsOverlapping(item.getId(), start.plusDays(3), start.plusDays(4), active));
+    }
+
+    private Booking saveBooking(LocalDateTime start, BookingStatus status) {
+        return bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(start.plusDays(1))
+                .item(item)
+                .booker(user)
+                .status(status)
+                .build());
+    }
 }
@@ -5,16 +5,23 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSliceDto;
 import ru.practicum.shareit.booking.dto.RequestBookingDto;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
 import ru.practicum.shareit.exception.AccessDeniedException;
 import ru.practicum.shareit.exception.BookingValidationException;
+import ru.practicum.shareit.exception.InvalidPaginationException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.UnknownBookingStateException;
+import ru.practicum.shareit.item.ItemChangedEvent;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.User;
@@ -27,6 +34,8 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +46,10 @@ class BookingServiceTest {
     private ItemRepository itemRepository;
     @Mock
     private UserRepository userRepository;
+    @Spy
+    private BookingIntervalIndex bookingIntervalIndex = new BookingIntervalIndex(false);
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -101,10 +114,13 @@ class BookingServiceTest {
 
         BookingDto bookingDto = bookingService.createBooking(1L, requestBookingDto);
         assertNotNull(bookingDto);
+        verify(itemRepository, never()).findByIdForUpdate(anyLong());
+        verify(bookingRepository, never()).existsOverlapping(anyLong(), any(), any(), anyList());
         assertEquals(requestBookingDto.getItemId(), bookingDto.getItem().getId());
         assertEquals(requestBookingDto.getStart(), bookingDto.getStart());
         assertEquals(requestBookingDto.getEnd(), bookingDto.getEnd());
         assertEquals(requestBookingDto.getBookerId(), bookingDto.getBooker().getId());
+        verify(eventPublisher).publishEvent(new ItemChangedEvent(item.getId()));
     }
 
 
@@ -157,39 +173,103 @@ class BookingServiceTest {
     }
 
     @Test
-    void updateBookingTest() {
+    void createBookingWithOverlappingIntervalTest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        booking.setStart(start);
+        booking.setEnd(start.plusDays(2));
         booking.setStatus(BookingStatus.WAITING);
+        bookingIntervalIndex.load(List.of(booking));
+        requestBookingDto.setStart(start.plusDays(1));
+        requestBookingDto.setEnd(start.plusDays(3));
 
-        when(bookingRepository.findById(anyLong()))
-                .thenReturn(Optional.ofNullable(booking));
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.ofNullable(user));
 
         when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(item));
 
-        when(bookingRepository.save(any()))
-                .thenReturn(booking);
+        BookingValidationException e = assertThrows(BookingValidationException.class,
+                () -> bookingService.createBooking(1L, requestBookingDto));
+
+        assertNotNull(e);
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void createBookingWithOverlapInDatabaseTest() {
+        BookingServiceImpl multiInstanceService = new BookingServiceImpl(bookingRepository, itemRepository,
+                userRepository, new BookingIntervalIndex(true), eventPublisher);
+
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.ofNullable(user));
+
+        when(itemRepository.findByIdForUpdate(anyLong()))
+                .thenReturn(Optional.ofNullable(item));
+        when(bookingRepository.existsOverlapping(eq(item.getId()), any(), any(), anyList()))
+                .thenReturn(true);
+
+        BookingValidationException e = assertThrows(BookingValidationException.class,
+                () -> multiInstanceService.createBooking(1L, requestBookingDto));
+
+        assertNotNull(e);
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void updateBookingWithRejectReleasesIntervalTest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        booking.setStart(start);
+        booking.setEnd(start.plusDays(2));
+        booking.setStatus(BookingStatus.WAITING);
+        bookingIntervalIndex.load(List.of(booking));
+        booking.setStatus(BookingStatus.REJECTED);
+
+        when(bookingRepository.updateStatus(1L, 2L, BookingStatus.WAITING, BookingStatus.REJECTED))
+                .thenReturn(1);
+
+        when(bookingRepository.findById(anyLong()))
+                .thenReturn(Optional.ofNullable(booking));
+
+        BookingDto bookingDto = bookingService.updateBooking(2L, 1L, false);
+
+        assertEquals(BookingStatus.REJECTED, bookingDto.getStatus());
+        assertTrue(bookingIntervalIndex.isFree(item.getId(), start, start.plusDays(2)));
+    }
+
+    @Test
+    void updateBookingTest() {
+        booking.setStatus(BookingStatus.APPROVED);
+
+        when(bookingRepository.updateStatus(1L, 2L, BookingStatus.WAITING, BookingStatus.APPROVED))
+                .thenReturn(1);
+
+        when(bookingRepository.findById(anyLong()))
+                .thenReturn(Optional.ofNullable(booking));
 
         BookingDto bookingDto = bookingService.updateBooking(2L, 1L, true);
 
         assertNotNull(bookingDto);
         assertEquals(BookingStatus.APPROVED, bookingDto.getStatus());
-
+        verify(eventPublisher).publishEvent(new ItemChangedEvent(item.getId()));
+        verify(itemRepository, never()).findById(anyLong());
+        verify(bookingRepository, never()).save(any());
     }
 
     @Test
     void updateBookingWithAccessDeniedExceptionTest() {
         booking.setStatus(BookingStatus.WAITING);
 
+        when(bookingRepository.updateStatus(anyLong(), anyLong(), any(), any()))
+                .thenReturn(0);
+
         when(bookingRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(booking));
 
-        when(itemRepository.findById(anyLong()))
-                .thenReturn(Optional.ofNullable(item));
-
         AccessDeniedException e = assertThrows(AccessDeniedException.class,
                 () -> bookingService.updateBooking(1L, 1L, true));
 
         assertNotNull(e);
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -206,20 +286,19 @@ class BookingServiceTest {
 
     @Test
     void updateBookingWithBookingValidationExceptionTest() {
-        booking.setStatus(BookingStatus.WAITING);
+        booking.setStatus(BookingStatus.APPROVED);
+
+        when(bookingRepository.updateStatus(anyLong(), anyLong(), any(), any()))
+                .thenReturn(0);
 
         when(bookingRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(booking));
 
-        when(itemRepository.findById(anyLong()))
-                .thenReturn(Optional.ofNullable(item));
-
-        booking.setStatus(BookingStatus.APPROVED);
-
         BookingValidationException e = assertThrows(BookingValidationException.class,
                 () -> bookingService.updateBooking(2L, 1L, true));
 
         assertNotNull(e);
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -249,10 +328,10 @@ class BookingServiceTest {
     void getAllBookingsByUserIdTest() {
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(user));
-        when(bookingRepository.findByBookerIdOrderByStartDesc(anyLong(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.search(any(), any(), anyInt()))
+                .thenReturn(Window.from(List.of(booking), ScrollPosition::offset));
 
-        List<BookingDto> bookings = bookingService.getAllBookingsByUserId(1L, "ALL", 0, 10);
+        List<BookingDto> bookings = bookingService.getAllBookingsByUserId(1L, "ALL", 0, 10, null, null).getBookings();
 
         assertNotNull(bookings);
         assertFalse(bookings.isEmpty());
@@ -266,7 +345,7 @@ class BookingServiceTest {
                 .thenReturn(Optional.ofNullable(user));
 
         UnknownBookingStateException e = assertThrows(UnknownBookingStateException.class,
-                () -> bookingService.getAllBookingsByUserId(1L, "UNKNOWN", 0, 10));
+                () -> bookingService.getAllBookingsByUserId(1L, "UNKNOWN", 0, 10, null, null));
 
         assertNotNull(e);
     }
@@ -275,10 +354,10 @@ class BookingServiceTest {
     void getAllBookingsByUserIdCurrentTest() {
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(user));
-        when(bookingRepository.findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(anyLong(), any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.search(any(), any(), anyInt()))
+                .thenReturn(Window.from(List.of(booking), ScrollPosition::offset));
 
-        List<BookingDto> bookings = bookingService.getAllBookingsByUserId(1L, "CURRENT", 0, 10);
+        List<BookingDto> bookings = bookingService.getAllBookingsByUserId(1L, "CURRENT", 0, 10, null, null).getBookings();
 
         assertNotNull(bookings);
         assertFalse(bookings.isEmpty());
@@ -289,10 +368,10 @@ class BookingServiceTest {
     void getAllBookingsByUserIdFutureTest() {
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(user));
-        when(bookingRepository.findByBookerIdAndStartAfterOrderByStartDesc(anyLong(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.search(any(), any(), anyInt()))
+                .thenReturn(Window.from(List.of(booking), ScrollPosition::offset));
 
-        List<BookingDto> bookings = bookingService.getAllBookingsByUserId(1L, "FUTURE", 0, 10);
+        List<BookingDto> bookings = bookingService.getAllBookingsByUserId(1L, "FUTURE", 0, 10, null, null).getBookings();
 
         assertNotNull(bookings);
         assertFalse(bookings.isEmpty());
@@ -302,10 +381,10 @@ class BookingServiceTest {
     void getAllBookingsByUserIdWaitingTest() {
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(user));
-        when(bookingRepository.findByBookerIdAndStatus(anyLong(), eq(BookingStatus.WAITING), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.search(any(), any(), anyInt()))
+                .thenReturn(Window.from(List.of(booking), ScrollPosition::offset));
 
-        List<BookingDto> bookings = bookingService.getAllBookingsByUserId(1L, "WAITING", 0, 10);
+        List<BookingDto> bookings = bookingService.getAllBookingsByUserId(1L, "WAITING", 0, 10, null, null).getBookings();
 
         assertNotNull(bookings);
         assertFalse(bookings.isEmpty());
@@ -315,10 +394,10 @@ class BookingServiceTest {
     void getAllBookingsByUserIdRejectedTest() {
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(user));
-        when(bookingRepository.findByBookerIdAndStatus(anyLong(), eq(BookingStatus.REJECTED), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.search(any(), any(), anyInt()))
+                .thenReturn(Window.from(List.of(booking), ScrollPosition::offset));
 
-        List<BookingDto> bookings = bookingService.getAllBookingsByUserId(1L, "REJECTED", 0, 10);
+        List<BookingDto> bookings = bookingService.getAllBookingsByUserId(1L, "REJECTED", 0, 10, null, null).getBookings();
 
         assertNotNull(bookings);
         assertFalse(bookings.isEmpty());
@@ -328,10 +407,10 @@ class BookingServiceTest {
     void getAllBookingsByUserIdPastTest() {
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(user));
-        when(bookingRepository.findByBookerIdAndEndBeforeOrderByStartDesc(anyLong(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.search(any(), any(), anyInt()))
+                .thenReturn(Window.from(List.of(booking), ScrollPosition::offset));
 
-        List<BookingDto> bookings = bookingService.getAllBookingsByUserId(1L, "PAST", 0, 10);
+        List<BookingDto> bookings = bookingService.getAllBookingsByUserId(1L, "PAST", 0, 10, null, null).getBookings();
 
         assertNotNull(bookings);
         assertFalse(bookings.isEmpty());
@@ -340,10 +419,10 @@ class BookingServiceTest {
     @Test
     void getBookingsByOwnerIdTest() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
-        when(bookingRepository.findByItemOwnerIdOrderByStartDesc(anyLong(), any()))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.search(any(), any(), anyInt()))
+                .thenReturn(Window.from(List.of(booking), ScrollPosition::offset));
 
-        List<BookingDto> bookings = bookingService.getBookingsByOwnerId(2L, "ALL", 0, 10);
+        List<BookingDto> bookings = bookingService.getBookingsByOwnerId(2L, "ALL", 0, 10, null, null).getBookings();
 
         assertNotNull(bookings);
         assertFalse(bookings.isEmpty());
@@ -357,7 +436,7 @@ class BookingServiceTest {
                 .thenReturn(Optional.ofNullable(owner));
 
         UnknownBookingStateException e = assertThrows(UnknownBookingStateException.class,
-                () -> bookingService.getBookingsByOwnerId(2L, "UNKNOWN", 0, 10));
+                () -> bookingService.getBookingsByOwnerId(2L, "UNKNOWN", 0, 10, null, null));
 
         assertNotNull(e);
     }
@@ -366,10 +445,10 @@ class BookingServiceTest {
     void getBookingsByOwnerId_CurrentTest() {
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(owner));
-        when(bookingRepository.findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(anyLong(), any(), any(), any()))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.search(any(), any(), anyInt()))
+                .thenReturn(Window.from(List.of(booking), ScrollPosition::offset));
 
-        List<BookingDto> bookings = bookingService.getBookingsByOwnerId(2L, "CURRENT", 0, 10);
+        List<BookingDto> bookings = bookingService.getBookingsByOwnerId(2L, "CURRENT", 0, 10, null, null).getBookings();
 
         assertNotNull(bookings);
         assertFalse(bookings.isEmpty());
@@ -379,10 +458,10 @@ class BookingServiceTest {
     void getBookingsByOwnerId_PastTest() {
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(owner));
-        when(bookingRepository.findByItemOwnerIdAndEndBeforeOrderByStartDesc(anyLong(), any(), any()))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.search(any(), any(), anyInt()))
+                .thenReturn(Window.from(List.of(booking), ScrollPosition::offset));
 
-        List<BookingDto> bookings = bookingService.getBookingsByOwnerId(2L, "PAST", 0, 10);
+        List<BookingDto> bookings = bookingService.getBookingsByOwnerId(2L, "PAST", 0, 10, null, null).getBookings();
 
         assertNotNull(bookings);
         assertFalse(bookings.isEmpty());
@@ -392,10 +471,10 @@ class BookingServiceTest {
     void getBookingsByOwnerId_FutureTest() {
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(owner));
-        when(bookingRepository.findByItemOwnerIdAndStartAfterOrderByStartDesc(anyLong(), any(), any()))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.search(any(), any(), anyInt()))
+                .thenReturn(Window.from(List.of(booking), ScrollPosition::offset));
 
-        List<BookingDto> bookings = bookingService.getBookingsByOwnerId(2L, "FUTURE", 0, 10);
+        List<BookingDto> bookings = bookingService.getBookingsByOwnerId(2L, "FUTURE", 0, 10, null, null).getBookings();
 
         assertNotNull(bookings);
         assertFalse(bookings.isEmpty());
@@ -405,10 +484,10 @@ class BookingServiceTest {
     void getBookingsByOwnerId_WaitingTest() {
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(owner));
-        when(bookingRepository.findByItemOwnerIdAndStatus(anyLong(), eq(BookingStatus.WAITING), any()))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.search(any(), any(), anyInt()))
+                .thenReturn(Window.from(List.of(booking), ScrollPosition::offset));
 
-        List<BookingDto> bookings = bookingService.getBookingsByOwnerId(2L, "WAITING", 0, 10);
+        List<BookingDto> bookings = bookingService.getBookingsByOwnerId(2L, "WAITING", 0, 10, null, null).getBookings();
 
         assertNotNull(bookings);
         assertFalse(bookings.isEmpty());
@@ -418,14 +497,50 @@ class BookingServiceTest {
     void getBookingsByOwnerId_RejectedTest() {
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(owner));
-        when(bookingRepository.findByItemOwnerIdAndStatus(anyLong(), eq(BookingStatus.REJECTED), any()))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.search(any(), any(), anyInt()))
+                .thenReturn(Window.from(List.of(booking), ScrollPosition::offset));
 
-        List<BookingDto> bookings = bookingService.getBookingsByOwnerId(2L, "REJECTED", 0, 10);
+        List<BookingDto> bookings = bookingService.getBookingsByOwnerId(2L, "REJECTED", 0, 10, null, null).getBookings();
 
         assertNotNull(bookings);
         assertFalse(bookings.isEmpty());
     }
 
+    @Test
+    void getAllBookingsByUserIdWithCursorTest() {
+        String cursor = BookingCursor.encode(booking);
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.ofNullable(user));
+        when(bookingRepository.search(any(), eq(BookingCursor.decode(cursor)), anyInt()))
+                .thenReturn(Window.from(List.of(booking), ScrollPosition::offset, true));
+
+        BookingSliceDto slice = bookingService.getAllBookingsByUserId(1L, "ALL", 0, 1, cursor, null);
+
+        assertEquals(1, slice.getBookings().size());
+        assertEquals(cursor, slice.getNextCursor());
+    }
+
+    @Test
+    void getBookingsByOwnerIdWithLastSliceTest() {
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.ofNullable(owner));
+        when(bookingRepository.search(any(), any(), anyInt()))
+                .thenReturn(Window.from(List.of(booking), ScrollPosition::offset));
+
+        BookingSliceDto slice = bookingService.getBookingsByOwnerId(2L, "ALL", 0, 10, null, null);
 
+        assertEquals(1, slice.getBookings().size());
+        assertNull(slice.getNextCursor());
+    }
+
+    @Test
+    void getAllBookingsByUserIdWithInvalidCursorTest() {
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.ofNullable(user));
+
+        InvalidPaginationException e = assertThrows(InvalidPaginationException.class,
+                () -> bookingService.getAllBookingsByUserId(1L, "ALL", 0, 10, "not-a-cursor", null));
+
+        assertNotNull(e);
+    }
 }
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.ScrollPosition;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingSpecifications;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BookingStatementCountTest {
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private Statistics statistics;
+    private LocalDateTime now;
+    private User owner;
+    private User booker;
+    private Booking lastBooking;
+
+    @BeforeEach
+    void init() {
+        statistics = em.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        now = LocalDateTime.of(2025, 3, 12, 12, 0);
+        owner = em.persist(User.builder().name("OwnerName").email("OwnerEmail@gmail.com").build());
+        booker = em.persist(User.builder().name("UserName").email("UserEmail@gmail.com").build());
+
+        for (int i = 0; i < 3; i++) {
+            User requester = em.persist(User.builder()
+                    .name("Requester" + i)
+                    .email("Requester" + i + "@gmail.com")
+                    .build());
+            ItemRequest itemRequest = em.persist(ItemRequest.builder()
+                    .description("RequestDesc" + i)
+                    .requester(requester)
+                    .created(now.minusDays(30))
+                    .build());
+            Item item = em.persist(Item.builder()
+                    .name("ItemName" + i)
+                    .description("ItemDesc" + i)
+                    .available(true)
+                    .owner(owner)
+                    .itemRequest(itemRequest)
+                    .build());
+            for (int day = -10; day <= 10; day += 4) {
+                lastBooking = em.persist(Booking.builder()
+                        .start(now.plusDays(day).plusHours(i))
+                        .end(now.plusDays(day + 2).plusHours(i))
+                        .item(item)
+                        .booker(booker)
+                        .status(day < 0 && day % 3 == 0 ? BookingStatus.REJECTED : BookingStatus.WAITING)
+                        .build());
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void bookerListsUseSingleStatementTest() {
+        for (State state : State.values()) {
+            assertSingleStatement(BookingRole.BOOKER, booker.getId(), state, ScrollPosition.offset());
+        }
+        assertSingleStatement(BookingRole.BOOKER, booker.getId(), State.ALL,
+                BookingCursor.decode(BookingCursor.encode(lastBooking)));
+    }
+
+    @Test
+    void ownerListsUseSingleStatementTest() {
+        for (State state : State.values()) {
+            assertSingleStatement(BookingRole.OWNER, owner.getId(), state, ScrollPosition.offset());
+        }
+        assertSingleStatement(BookingRole.OWNER, owner.getId(), State.ALL,
+                BookingCursor.decode(BookingCursor.encode(lastBooking)));
+    }
+
+    @Test
+    void findByIdUsesSingleStatementTest() {
+        statistics.clear();
+
+        BookingDto bookingDto = BookingMapper.toBookingDto(bookingRepository.findById(lastBooking.getId()).get());
+
+        assertEquals(lastBooking.getId(), bookingDto.getId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private void assertSingleStatement(BookingRole role, Long userId, State state, ScrollPosition position) {
+        em.clear();
+        statistics.clear();
+
+        List<BookingDto> bookings = bookingRepository.search(
+                        BookingSpecifications.search(role, userId, state, now, null), position, 10)
+                .stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList());
+
+        assertFalse(bookings.isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.deadline;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RequestDeadlineTest {
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void clear() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    void expiredRequestIsRejectedTest() throws Exception {
+        mvc.perform(get("/users")
+                        .header(RequestDeadline.TIMEOUT_HEADER, 0))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(jsonPath("$.error").value("Время запроса истекло"));
+    }
+
+    @Test
+    void requestWithinDeadlineTest() throws Exception {
+        mvc.perform(get("/users")
+                        .header(RequestDeadline.TIMEOUT_HEADER, 5000))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void transactionTimeoutFollowsDeadlineTest() {
+        RequestDeadline.start(2000);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager
+                    .getResource(entityManagerFactory);
+            assertNotNull(holder);
+            assertTrue(holder.hasTimeout());
+            assertTrue(holder.getTimeToLiveInMillis() <= 2000);
+        });
+    }
+
+    @Test
+    void expiredDeadlineStopsRepositoryCallsTest() {
+        RequestDeadline.start(0);
+        assertThrows(TransactionTimedOutException.class, () -> userRepository.findAll());
+    }
+}
@@ -0,0 +1,217 @@
+package ru.practicum.shareit.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class IdempotencyTest {
+    private static final String ITEM = "{\"name\":\"Дрель\",\"description\":\"Простая дрель\",\"available\":true}";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long userId;
+
+    @BeforeEach
+    void init() {
+        String name = UUID.randomUUID().toString();
+        userId = userRepository.save(User.builder().name(name).email(name + "@mail.ru").build()).getId();
+    }
+
+    @Test
+    void retryReturnsOriginalResponseTest() throws Exception {
+        String first = mvc.perform(createItem("retry", ITEM))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        mvc.perform(createItem("retry", ITEM))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(content().json(first, true));
+
+        assertEquals(1, countItems());
+    }
+
+    @Test
+    void differentKeysCreateDifferentItemsTest() throws Exception {
+        mvc.perform(createItem("first", ITEM))
+                .andExpect(status().isOk());
+        mvc.perform(createItem("second", ITEM))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+
+        assertEquals(2, countItems());
+    }
+
+    @Test
+    void keyReusedForAnotherRequestTest() throws Exception {
+        mvc.perform(createItem("reused", ITEM))
+                .andExpect(status().isOk());
+
+        mvc.perform(createItem("reused", ITEM.replace("Дрель", "Перфоратор")))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.error").value("Ключ уже использован"));
+
+        assertEquals(1, countItems());
+    }
+
+    @Test
+    void keyInProgressTest() throws Exception {
+        insertKey("in-progress", LocalDateTime.now());
+
+        mvc.perform(createItem("in-progress", ITEM))
+                .andExpect(status().isConflict())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+
+        assertEquals(0, countItems());
+    }
+
+    @Test
+    void abandonedKeyIsTakenOverTest() throws Exception {
+        insertKey("abandoned", LocalDateTime.now().minusMinutes(5));
+
+        mvc.perform(createItem("abandoned", ITEM))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+
+        assertEquals(1, countItems());
+    }
+
+    @Test
+    void invalidKeyTest() throws Exception {
+        mvc.perform(createItem("k".repeat(256), ITEM))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(0, countItems());
+    }
+
+    @Test
+    void retryWithContextPathTest() throws Exception {
+        mvc.perform(createItem("context", ITEM))
+                .andExpect(status().isOk());
+
+        mvc.perform(post("/shareit/items")
+                        .contextPath("/shareit")
+                        .header("X-Sharer-User-Id", userId)
+                        .header(IdempotencyFilter.KEY_HEADER, "context")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ITEM))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"));
+
+        assertEquals(1, countItems());
+    }
+
+    @Test
+    void createPathsTest() {
+        IdempotencyFilter filter = new IdempotencyFilter(idempotencyStore, objectMapper);
+
+        assertFalse(filter.shouldNotFilter(createRequest("", "/items")));
+        assertFalse(filter.shouldNotFilter(createRequest("", "/items/")));
+        assertFalse(filter.shouldNotFilter(createRequest("/shareit", "/shareit/bookings")));
+        assertFalse(filter.shouldNotFilter(createRequest("", "/requests;jsessionid=1")));
+        assertTrue(filter.shouldNotFilter(createRequest("", "/items/1/comment")));
+        assertTrue(filter.shouldNotFilter(createRequest("/shareit", "/shareit/users")));
+    }
+
+    @Test
+    void nonBlockingReadOfBodyTest() throws Exception {
+        IdempotencyFilter filter = new IdempotencyFilter(idempotencyStore, objectMapper);
+        MockHttpServletRequest request = createRequest("", "/items");
+        request.addHeader("X-Sharer-User-Id", userId);
+        request.setContent(ITEM.getBytes(StandardCharsets.UTF_8));
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            ServletInputStream in = req.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    while (in.isReady() && !in.isFinished()) {
+                        read.write(in.read());
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    throw new AssertionError(t);
+                }
+            });
+        });
+
+        assertArrayEquals(ITEM.getBytes(StandardCharsets.UTF_8), read.toByteArray());
+    }
+
+    private static MockHttpServletRequest createRequest(String contextPath, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setContextPath(contextPath);
+        request.addHeader(IdempotencyFilter.KEY_HEADER, "key");
+        return request;
+    }
+
+    private MockHttpServletRequestBuilder createItem(String key, String body) {
+        return post("/items")
+                .header("X-Sharer-User-Id", userId)
+                .header(IdempotencyFilter.KEY_HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body);
+    }
+
+    private void insertKey(String key, LocalDateTime created) {
+        jdbcTemplate.update("insert into idempotency_keys (user_id, idempotency_key, fingerprint, created) " +
+                "values (?, ?, ?, ?)", userId, key, "fingerprint", created);
+    }
+
+    private int countItems() {
+        return jdbcTemplate.queryForObject("select count(*) from items where owner = ?", Integer.class, userId);
+    }
+}
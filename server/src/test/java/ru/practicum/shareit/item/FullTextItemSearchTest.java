@@ -0,0 +1,50 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.FullTextItemSearch;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class FullTextItemSearchTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private FullTextItemSearch itemSearch;
+
+    @Test
+    void searchWithPrefixQueryTest() {
+        PageRequest pageRequest = PageRequest.of(0, 10);
+
+        itemSearch.search("Аккумуляторная  ДРЕЛЬ!", pageRequest);
+
+        verify(itemRepository).searchByFullText("аккумуляторная:* & дрель:*", pageRequest);
+    }
+
+    @Test
+    void searchWithTsQuerySyntaxTest() {
+        PageRequest pageRequest = PageRequest.of(0, 10);
+
+        itemSearch.search("a' | b:* & !c", pageRequest);
+
+        verify(itemRepository).searchByFullText("a:* & b:* & c:*", pageRequest);
+    }
+
+    @Test
+    void searchWithoutWordsTest() {
+        List<?> result = itemSearch.search("!&|", PageRequest.of(0, 10));
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(itemRepository);
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.search.GatewaySearchCacheNotifier;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GatewaySearchCacheNotifierTest {
+    private HttpServer gateway;
+    private final CompletableFuture<String> received = new CompletableFuture<>();
+
+    @BeforeEach
+    void init() throws IOException {
+        gateway = HttpServer.create(new InetSocketAddress(0), 0);
+        gateway.createContext("/internal/search-cache/invalidations", exchange -> {
+            received.complete(exchange.getRequestMethod() + " "
+                    + exchange.getRequestHeaders().getFirst("X-Internal-Secret") + " "
+                    + new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        gateway.start();
+    }
+
+    @AfterEach
+    void stop() {
+        gateway.stop(0);
+    }
+
+    @Test
+    void onItemTextChangedTest() throws Exception {
+        GatewaySearchCacheNotifier notifier = new GatewaySearchCacheNotifier(
+                List.of("http://localhost:" + gateway.getAddress().getPort()), "secret", new ObjectMapper());
+
+        notifier.onItemTextChanged(new ItemTextChangedEvent(Arrays.asList("Дрель", null, "Дрель", "Ударная")));
+
+        assertEquals("POST secret {\"texts\":[\"Дрель\",\"Ударная\"]}", received.get(5, TimeUnit.SECONDS));
+        notifier.destroy();
+    }
+
+    @Test
+    void withoutSecretNothingIsSentTest() throws Exception {
+        GatewaySearchCacheNotifier notifier = new GatewaySearchCacheNotifier(
+                List.of("http://localhost:" + gateway.getAddress().getPort()), "", new ObjectMapper());
+
+        notifier.onItemTextChanged(new ItemTextChangedEvent(List.of("Дрель")));
+
+        assertThrows(TimeoutException.class, () -> received.get(500, TimeUnit.MILLISECONDS));
+        notifier.destroy();
+    }
+}
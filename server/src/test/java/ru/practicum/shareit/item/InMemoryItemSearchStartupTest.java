@@ -0,0 +1,68 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.servlet.context.ServletWebServerInitializedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.InMemoryItemSearch;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shareit.item-search.mode=in-memory")
+@Import(InMemoryItemSearchStartupTest.SeedConfig.class)
+class InMemoryItemSearchStartupTest {
+    private static final String NAME = "Виброплита-" + UUID.randomUUID();
+
+    @Autowired
+    private AtomicInteger foundWhenServerStarted;
+
+    @Test
+    void indexIsLoadedBeforeServerStartsTest() {
+        assertEquals(1, foundWhenServerStarted.get());
+    }
+
+    @TestConfiguration
+    static class SeedConfig {
+        // Item попадает в базу до построения индекса и без события сохранения
+        @Bean
+        InitializingBean seedItem(UserRepository userRepository, ItemRepository itemRepository) {
+            return () -> {
+                User owner = userRepository.save(User.builder()
+                        .name("Owner")
+                        .email(UUID.randomUUID() + "@mail.ru")
+                        .build());
+                itemRepository.save(Item.builder()
+                        .name(NAME)
+                        .description("Для уплотнения грунта")
+                        .available(true)
+                        .owner(owner)
+                        .build());
+            };
+        }
+
+        @Bean
+        AtomicInteger foundWhenServerStarted() {
+            return new AtomicInteger(-1);
+        }
+
+        @Bean
+        ApplicationListener<ServletWebServerInitializedEvent> searchOnServerStart(InMemoryItemSearch itemSearch,
+                                                                                   AtomicInteger found) {
+            return event -> found.set(itemSearch.findIds(NAME, PageRequest.of(0, 10)).length);
+        }
+    }
+}
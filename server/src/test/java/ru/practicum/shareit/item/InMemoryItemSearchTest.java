@@ -0,0 +1,116 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.InMemoryItemSearch;
+import ru.practicum.shareit.item.search.ItemText;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryItemSearchTest {
+    @Mock
+    private ItemRepository itemRepository;
+
+    private InMemoryItemSearch itemSearch;
+
+    @BeforeEach
+    void init() {
+        itemSearch = new InMemoryItemSearch(itemRepository, false);
+        when(itemRepository.findAllProjectedBy()).thenReturn(List.of(
+                itemText(1L, "Дрель", "Аккумуляторная дрель", true),
+                itemText(2L, "Отвертка", "Крестовая отвертка", true),
+                itemText(3L, "Дрель ударная", "Для бетона", false),
+                itemText(4L, "Перфоратор", "Мощнее любой дрели", true)));
+        lenient().when(itemRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            return ((Collection<Long>) ids).stream()
+                    .map(id -> Item.builder().id(id).build())
+                    .toList();
+        });
+        itemSearch.afterSingletonsInstantiated();
+    }
+
+    @Test
+    void searchBySubstringTest() {
+        assertEquals(List.of(1L, 4L), ids(itemSearch.search("ДРЕЛ", PageRequest.of(0, 10))));
+        assertEquals(List.of(2L), ids(itemSearch.search("крестовая отв", PageRequest.of(0, 10))));
+        assertTrue(itemSearch.search("бетон", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void searchByShortTextTest() {
+        assertEquals(List.of(1L, 2L, 4L), ids(itemSearch.search("р", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void searchWithPaginationTest() {
+        assertEquals(List.of(4L), ids(itemSearch.search("дрел", PageRequest.of(1, 1))));
+        verify(itemRepository).findAllById(List.of(4L));
+    }
+
+    @Test
+    void onItemSavedTest() {
+        itemSearch.onItemSaved(new ItemSavedEvent(3L, "Дрель ударная", "Для бетона", true));
+        itemSearch.onItemSaved(new ItemSavedEvent(1L, "Шуруповерт", "Аккумуляторный", true));
+        itemSearch.onItemSaved(new ItemSavedEvent(5L, "Дрель-миксер", "Для раствора", true));
+
+        assertEquals(List.of(3L, 4L, 5L), ids(itemSearch.search("дрел", PageRequest.of(0, 10))));
+        assertEquals(List.of(1L), ids(itemSearch.search("шуруп", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void onItemSavedWithUnavailableItemTest() {
+        itemSearch.onItemSaved(new ItemSavedEvent(1L, "Дрель", "Аккумуляторная дрель", false));
+
+        assertEquals(List.of(4L), ids(itemSearch.search("дрел", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void rejectedForMultipleInstancesTest() {
+        assertThrows(IllegalStateException.class, () -> new InMemoryItemSearch(itemRepository, true));
+    }
+
+    private List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).toList();
+    }
+
+    private ItemText itemText(Long id, String name, String description, Boolean available) {
+        return new ItemText() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getDescription() {
+                return description;
+            }
+
+            @Override
+            public Boolean getAvailable() {
+                return available;
+            }
+        };
+    }
+}
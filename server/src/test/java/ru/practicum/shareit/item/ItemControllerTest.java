@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -22,6 +23,7 @@ import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -122,7 +124,7 @@ public class ItemControllerTest {
 
     @Test
     void getItemsByUserIdTest() throws Exception {
-        when(itemService.getItemsByUserId(anyLong()))
+        when(itemService.getItemsByUserId(anyLong(), anyInt(), any()))
                 .thenReturn(List.of(itemWithBookingDto));
 
         mvc.perform(get("/items")
@@ -134,12 +136,12 @@ public class ItemControllerTest {
                 .andExpect(content().json(mapper.writeValueAsString(List.of(itemWithBookingDto))));
 
         verify(itemService, times(1))
-                .getItemsByUserId(anyLong());
+                .getItemsByUserId(anyLong(), anyInt(), any());
     }
 
     @Test
     void getItemsByTextTest() throws Exception {
-        when(itemService.getItemsByText(anyString()))
+        when(itemService.getItemsByText(anyString(), anyInt(), anyInt()))
                 .thenReturn(List.of(itemDto));
 
         mvc.perform(get("/items/search?text=name")
@@ -151,7 +153,7 @@ public class ItemControllerTest {
                 .andExpect(content().json(mapper.writeValueAsString(List.of(itemDto))));
 
         verify(itemService, times(1))
-                .getItemsByText(anyString());
+                .getItemsByText(eq("name"), eq(0), eq(10));
     }
 
     @Test
@@ -172,5 +174,30 @@ public class ItemControllerTest {
                 .addComment(anyLong(), anyLong(), any());
     }
 
+    @Test
+    void getItemByIdWithMatchingETagTest() throws Exception {
+        itemWithBookingDto.setVersion(1L);
+        when(itemService.getItemById(anyLong(), anyLong()))
+                .thenReturn(itemWithBookingDto);
+
+        String eTag = mvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        itemWithBookingDto.setVersion(2L);
 
+        mvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(itemWithBookingDto)));
+    }
 }
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingDtoForItem;
+import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+import ru.practicum.shareit.item.service.ItemDetailCache;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ItemDetailCacheTest {
+    private ItemDetailCache cache;
+    private ItemWithBookingDto ownerView;
+    private ItemWithBookingDto otherView;
+
+    @BeforeEach
+    void init() {
+        cache = new ItemDetailCache(100, Duration.ofMinutes(5), false);
+        ownerView = ItemWithBookingDto.builder()
+                .id(1L)
+                .name("ItemName")
+                .nextBooking(BookingDtoForItem.builder()
+                        .id(1L)
+                        .start(LocalDateTime.now().plusDays(1))
+                        .build())
+                .build();
+        otherView = ItemWithBookingDto.builder()
+                .id(1L)
+                .name("ItemName")
+                .build();
+    }
+
+    @Test
+    void getByViewerRoleTest() {
+        cache.put(5L, true, ownerView, cache.generation(1L));
+        cache.put(5L, false, otherView, cache.generation(1L));
+
+        assertEquals(ownerView, cache.get(1L, 5L));
+        assertEquals(otherView, cache.get(1L, 6L));
+        assertNull(cache.get(2L, 5L));
+    }
+
+    @Test
+    void getOwnerViewWithoutOwnerEntryTest() {
+        cache.put(5L, false, otherView, cache.generation(1L));
+
+        assertNull(cache.get(1L, 5L));
+    }
+
+    @Test
+    void onItemChangedTest() {
+        cache.put(5L, true, ownerView, cache.generation(1L));
+        cache.put(5L, false, otherView, cache.generation(1L));
+
+        cache.onItemChanged(new ItemChangedEvent(1L));
+
+        assertNull(cache.get(1L, 5L));
+        assertNull(cache.get(1L, 6L));
+    }
+
+    @Test
+    void putAfterItemChangedIsSkippedTest() {
+        long generation = cache.generation(1L);
+
+        cache.onItemChanged(new ItemChangedEvent(1L));
+        cache.put(5L, true, ownerView, generation);
+
+        assertNull(cache.get(1L, 5L));
+    }
+
+    @Test
+    void getReturnsCopyTest() {
+        cache.put(5L, true, ownerView, cache.generation(1L));
+        ownerView.setName("Changed");
+
+        ItemWithBookingDto first = cache.get(1L, 5L);
+        first.getNextBooking().setId(2L);
+        ItemWithBookingDto second = cache.get(1L, 5L);
+
+        assertNotSame(first, second);
+        assertEquals("ItemName", second.getName());
+        assertEquals(1L, second.getNextBooking().getId());
+    }
+
+    @Test
+    void expireWhenNextBookingStartsTest() {
+        ownerView.getNextBooking().setStart(LocalDateTime.now().minusSeconds(1));
+
+        cache.put(5L, true, ownerView, cache.generation(1L));
+
+        assertNull(cache.get(1L, 5L));
+    }
+
+    @Test
+    void disabledForMultipleInstancesTest() {
+        ItemDetailCache disabled = new ItemDetailCache(100, Duration.ofMinutes(5), true);
+
+        disabled.put(5L, false, otherView, disabled.generation(1L));
+
+        assertNull(disabled.get(1L, 6L));
+    }
+}
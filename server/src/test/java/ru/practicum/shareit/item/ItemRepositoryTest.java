@@ -4,8 +4,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemText;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
@@ -102,20 +104,57 @@ public class ItemRepositoryTest {
 
     @Test
     void searchByTextTest() {
-        List<Item> result = itemRepository.searchByText("ItemName1");
+        List<Item> result = itemRepository.searchByText("ItemName1", PageRequest.of(0, 10));
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("ItemName1", result.get(0).getName());
     }
 
+    @Test
+    void searchByTextWithInfixTest() {
+        Item drill = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("Аккумуляторная, с набором сверл")
+                .available(true)
+                .owner(user1)
+                .build());
+
+        assertEquals(List.of(drill.getId()), itemRepository.searchByText("рель", PageRequest.of(0, 10)).stream()
+                .map(Item::getId)
+                .toList());
+        assertEquals(List.of(drill.getId()), itemRepository.searchByText("с набором", PageRequest.of(0, 10)).stream()
+                .map(Item::getId)
+                .toList());
+    }
+
     @Test
     void searchByTextWithEmptyResultTest() {
-        List<Item> result = itemRepository.searchByText("NonExistingItem");
+        List<Item> result = itemRepository.searchByText("NonExistingItem", PageRequest.of(0, 10));
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void searchByTextWithPaginationTest() {
+        List<Item> firstPage = itemRepository.searchByText("itemname", PageRequest.of(0, 2));
+        List<Item> secondPage = itemRepository.searchByText("itemname", PageRequest.of(1, 2));
+
+        assertEquals(List.of(item1.getId(), item2.getId()), firstPage.stream().map(Item::getId).toList());
+        assertEquals(List.of(item3.getId()), secondPage.stream().map(Item::getId).toList());
+    }
+
+    @Test
+    void findAllProjectedByTest() {
+        List<ItemText> result = itemRepository.findAllProjectedBy();
+
+        assertEquals(3, result.size());
+        assertTrue(result.stream().anyMatch(item -> item.getId().equals(item1.getId())
+                && item.getName().equals(item1.getName())
+                && item.getDescription().equals(item1.getDescription())
+                && item.getAvailable()));
+    }
+
     @Test
     void findAllByOwnerIdTest() {
         List<Item> result = itemRepository.findAllByOwnerId(user1.getId());
@@ -127,7 +166,7 @@ public class ItemRepositoryTest {
 
     @Test
     void findAllByOwnerIdWithEmptyResultTest() {
-        List<Item> result = itemRepository.findAllByOwnerId(10L);
+        List<Item> result = itemRepository.findAllByOwnerId(-10L);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
@@ -163,7 +202,7 @@ public class ItemRepositoryTest {
 
     @Test
     void findAllByItemRequestIdInWithEmptyResultTest() {
-        List<Long> requestIds = List.of(10L, 20L);
+        List<Long> requestIds = List.of(-10L, -20L);
         List<Item> result = itemRepository.findAllByItemRequestIdIn(requestIds);
 
         assertNotNull(result);
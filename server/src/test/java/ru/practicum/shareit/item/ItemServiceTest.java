@@ -3,15 +3,20 @@ package ru.practicum.shareit.item;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingDtoForItem;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.AccessDeniedException;
 import ru.practicum.shareit.exception.BookingValidationException;
+import ru.practicum.shareit.exception.InvalidPaginationException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -20,12 +25,15 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.service.ItemDetailCache;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -35,6 +43,9 @@ import static java.util.Optional.ofNullable;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -50,6 +61,12 @@ public class ItemServiceTest {
     private CommentRepository commentRepository;
     @Mock
     private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private ItemSearch itemSearch;
+    @Spy
+    private ItemDetailCache itemDetailCache = new ItemDetailCache(100, Duration.ofMinutes(5), false);
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -245,6 +262,11 @@ public class ItemServiceTest {
         assertNotNull(result);
         assertEquals(itemDtoWithOutRequest.getDescription(), result.getDescription());
         assertEquals(itemDtoWithOutRequest.getId(), result.getId());
+        verify(eventPublisher).publishEvent(new ItemChangedEvent(item.getId()));
+        verify(eventPublisher).publishEvent(new ItemSavedEvent(item.getId(), item.getName(), item.getDescription(),
+                item.getAvailable()));
+        verify(eventPublisher).publishEvent(ArgumentMatchers.<Object>argThat(event ->
+                event instanceof ItemTextChangedEvent changed && changed.texts().contains("NewDesc")));
     }
 
     @Test
@@ -302,7 +324,7 @@ public class ItemServiceTest {
     void getItemByIdTest() {
         when(itemRepository.findById(anyLong()))
                 .thenReturn(ofNullable(item));
-        when(bookingRepository.findByItemAndStatusOrderByStart(any(), any()))
+        when(bookingRepository.findLastAndNextApprovedBookings(anyCollection(), any()))
                 .thenReturn(Collections.emptyList());
         when(commentRepository.findByItemId(anyLong()))
                 .thenReturn(List.of(comment));
@@ -321,14 +343,15 @@ public class ItemServiceTest {
     void getItemByIdWithUserIsNotOwnerTest() {
         when(itemRepository.findById(anyLong()))
                 .thenReturn(ofNullable(item));
-        when(bookingRepository.findByItemAndStatusOrderByStart(any(), any()))
-                .thenReturn(Collections.emptyList());
         when(commentRepository.findByItemId(anyLong()))
                 .thenReturn(List.of(comment));
 
         ItemWithBookingDto result = itemService.getItemById(item.getId(), 10L);
 
+        verifyNoInteractions(bookingRepository);
         assertNotNull(result);
+        assertNull(result.getLastBooking());
+        assertNull(result.getNextBooking());
         assertEquals(item.getId(), result.getId());
         assertEquals(item.getName(), result.getName());
         assertEquals(item.getDescription(), result.getDescription());
@@ -350,7 +373,7 @@ public class ItemServiceTest {
     void getItemByIdWithBookingsTest() {
         when(itemRepository.findById(anyLong()))
                 .thenReturn(ofNullable(item));
-        when(bookingRepository.findByItemAndStatusOrderByStart(any(), any()))
+        when(bookingRepository.findLastAndNextApprovedBookings(eq(List.of(item.getId())), any()))
                 .thenReturn(List.of(booking1, booking2));
         when(commentRepository.findByItemId(anyLong()))
                 .thenReturn(List.of(comment));
@@ -373,18 +396,33 @@ public class ItemServiceTest {
         assertEquals(commentDto.getAuthorName(), result.getComments().get(0).getAuthorName());
     }
 
+    @Test
+    void getItemByIdFromCacheTest() {
+        when(itemRepository.findById(anyLong()))
+                .thenReturn(ofNullable(item));
+        when(commentRepository.findByItemId(anyLong()))
+                .thenReturn(List.of(comment));
+
+        ItemWithBookingDto first = itemService.getItemById(item.getId(), 10L);
+        ItemWithBookingDto second = itemService.getItemById(item.getId(), 11L);
+
+        assertEquals(first, second);
+        verify(itemRepository, times(1)).findById(item.getId());
+        verify(commentRepository, times(1)).findByItemId(item.getId());
+    }
+
     @Test
     void getItemsByUserIdTest() {
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(owner));
         when(itemRepository.findAllByOwnerId(anyLong()))
                 .thenReturn(List.of(item));
-        when(bookingRepository.findAllByItemInAndStatusOrderByStartAsc(anyList(), any()))
+        when(bookingRepository.findLastAndNextApprovedBookings(anyList(), any()))
                 .thenReturn(Collections.emptyList());
         when(commentRepository.findByItemIn(anyList()))
                 .thenReturn(List.of(comment));
 
-        List<ItemWithBookingDto> result = itemService.getItemsByUserId(owner.getId());
+        List<ItemWithBookingDto> result = itemService.getItemsByUserId(owner.getId(), 0, null);
 
         assertNotNull(result);
         assertEquals(1, result.size());
@@ -403,12 +441,12 @@ public class ItemServiceTest {
                 .thenReturn(Optional.of(owner));
         when(itemRepository.findAllByOwnerId(anyLong()))
                 .thenReturn(List.of(item));
-        when(bookingRepository.findAllByItemInAndStatusOrderByStartAsc(anyList(), any()))
+        when(bookingRepository.findLastAndNextApprovedBookings(anyList(), any()))
                 .thenReturn(List.of(booking1, booking2));
         when(commentRepository.findByItemIn(anyList()))
                 .thenReturn(List.of(comment));
 
-        List<ItemWithBookingDto> result = itemService.getItemsByUserId(owner.getId());
+        List<ItemWithBookingDto> result = itemService.getItemsByUserId(owner.getId(), 0, null);
 
         assertNotNull(result);
         assertEquals(1, result.size());
@@ -427,13 +465,41 @@ public class ItemServiceTest {
         assertEquals(commentDto.getAuthorName(), result.get(0).getComments().get(0).getAuthorName());
     }
 
+    @Test
+    void getItemsByUserIdWithPaginationTest() {
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(owner));
+        when(itemRepository.findAllByOwnerIdOrderById(anyLong(), eq(PageRequest.of(2, 5))))
+                .thenReturn(List.of(item));
+        when(bookingRepository.findLastAndNextApprovedBookings(anyList(), any()))
+                .thenReturn(List.of(booking1, booking2));
+        when(commentRepository.findByItemIn(anyList()))
+                .thenReturn(Collections.emptyList());
+
+        List<ItemWithBookingDto> result = itemService.getItemsByUserId(owner.getId(), 10, 5);
+
+        assertEquals(1, result.size());
+        assertEquals(lastBooking.getId(), result.get(0).getLastBooking().getId());
+        assertEquals(nextBooking.getId(), result.get(0).getNextBooking().getId());
+    }
+
+    @Test
+    void getItemsByUserIdWithInvalidPaginationTest() {
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(owner));
+
+        InvalidPaginationException e = assertThrows(InvalidPaginationException.class,
+                () -> itemService.getItemsByUserId(owner.getId(), -1, 5));
+        assertNotNull(e);
+    }
+
     @Test
     void getItemsByUserIdWithNotFoundUserTest() {
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.empty());
 
         NotFoundException e = assertThrows(NotFoundException.class,
-                () -> itemService.getItemsByUserId(3L));
+                () -> itemService.getItemsByUserId(3L, 0, null));
         assertNotNull(e);
     }
 
@@ -494,10 +560,11 @@ public class ItemServiceTest {
 
     @Test
     void getItemsByTextTest() {
-        when(itemRepository.searchByText(anyString()))
+        when(itemSearch.search(anyString(), any()))
                 .thenReturn(List.of(item));
 
-        List<ItemDto> result = itemService.getItemsByText("ItemName");
+        List<ItemDto> result = itemService.getItemsByText("ItemName", 20, 10);
+        verify(itemSearch).search("ItemName", PageRequest.of(2, 10));
 
         assertNotNull(result);
         assertEquals(1, result.size());
@@ -506,15 +573,23 @@ public class ItemServiceTest {
 
     @Test
     void getItemsByTextWithNullTextTest() {
-        List<ItemDto> result = itemService.getItemsByText(null);
+        List<ItemDto> result = itemService.getItemsByText(null, 0, 10);
         assertNotNull(result);
         assertTrue(result.isEmpty());
     }
 
     @Test
     void getItemsByTextWithEmptyTextTest() {
-        List<ItemDto> result = itemService.getItemsByText("");
+        List<ItemDto> result = itemService.getItemsByText("", 0, 10);
         assertNotNull(result);
         assertTrue(result.isEmpty());
     }
+
+    @Test
+    void getItemsByTextWithInvalidPaginationTest() {
+        assertThrows(InvalidPaginationException.class,
+                () -> itemService.getItemsByText("ItemName", -1, 10));
+        assertThrows(InvalidPaginationException.class,
+                () -> itemService.getItemsByText("ItemName", 0, 0));
+    }
 }
@@ -7,8 +7,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
@@ -109,4 +111,27 @@ public class ItemRequestControllerTest {
 
         verify(itemRequestService, times(1)).getRequestById(anyLong(), anyLong());
     }
+
+    @Test
+    void getRequestByIdWithMatchingETagTest() throws Exception {
+        when(itemRequestService.getRequestById(anyLong(), anyLong()))
+                .thenReturn(itemRequestDto);
+
+        String eTag = mvc.perform(get("/requests/1")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/requests/1")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        itemRequestDto.setItems(List.of(ItemDto.builder().id(1L).version(0L).build()));
+
+        mvc.perform(get("/requests/1")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
 }